@@ -0,0 +1,123 @@
+//start - license
+/*
+ * Copyright (c) 2025 Ashera Cordova
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+//end - license
+
+package androidx.coordinatorlayout.widget;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import r.android.view.View;
+
+/**
+ * Benchmarks {@link ChildDependencyGraph}, the graph CoordinatorLayout sorts and dispatches
+ * over, on random graphs where every node depends on up to {@link #edgesPerNode} earlier nodes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChildDependencyGraphBenchmark {
+    @Param({"10", "100", "1000", "10000"})
+    public int nodeCount;
+
+    @Param({"2"})
+    public int edgesPerNode;
+
+    private final ChildDependencyGraph mGraph = new ChildDependencyGraph();
+    private View[] mChildren;
+    private int[][] mDependencies;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(42);
+        mChildren = new View[nodeCount];
+        mDependencies = new int[nodeCount][];
+        for (int i = 0; i < nodeCount; i++) {
+            mChildren[i] = new View();
+            mDependencies[i] = new int[i == 0 ? 0 : edgesPerNode];
+            for (int e = 0; e < mDependencies[i].length; e++) {
+                mDependencies[i][e] = random.nextInt(i);
+            }
+        }
+        build();
+    }
+
+    private void build() {
+        mGraph.beginBuild(nodeCount);
+        for (int i = 0; i < nodeCount; i++) {
+            mGraph.addNode(i, mChildren[i]);
+            for (int dependency : mDependencies[i]) {
+                mGraph.addDependency(i, dependency, ChildDependencyGraph.EDGE_BEHAVIOR);
+            }
+        }
+        mGraph.endBuild();
+    }
+
+    /**
+     * What prepareChildren pays: filling the graph, sorting it and building the dependent lists.
+     */
+    @Benchmark
+    public void buildAndSort(Blackhole bh) {
+        build();
+        bh.consume(mGraph.getSortedNode(0));
+    }
+
+    /**
+     * A full onChildViewsChanged walk: every node in sorted order and every edge to its
+     * dependents.
+     */
+    @Benchmark
+    public void dispatchAll(Blackhole bh) {
+        for (int position = 0; position < nodeCount; position++) {
+            final int node = mGraph.getSortedNode(position);
+            for (int e = mGraph.getDependentsStart(node), end = mGraph.getDependentsEnd(node);
+                    e < end; e++) {
+                bh.consume(mGraph.getDependentFlags(e));
+                bh.consume(mGraph.getDependent(e));
+            }
+        }
+    }
+
+    /**
+     * A worklist walk after the first sorted node changed, following the dirty bits through
+     * everything that transitively depends on it.
+     */
+    @Benchmark
+    public void dispatchWorklist(Blackhole bh) {
+        mGraph.markDirty(mGraph.getSortedNode(0));
+        for (int position = mGraph.nextWorklistPosition(0); position >= 0;
+                position = mGraph.nextWorklistPosition(position + 1)) {
+            mGraph.markDependentsDirty(mGraph.getSortedNode(position));
+            bh.consume(position);
+        }
+        mGraph.clearDirty();
+    }
+}
@@ -0,0 +1,133 @@
+//start - license
+/*
+ * Copyright (c) 2025 Ashera Cordova
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+//end - license
+
+package androidx.coordinatorlayout.widget;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import r.android.view.View;
+import androidx.core.view.ViewCompat;
+
+/**
+ * Benchmarks the passes of a synthetic {@link CoordinatorLayout}: building the dependency graph,
+ * measure, layout, {@link CoordinatorLayout#onChildViewsChanged(int)} for each event type and a
+ * full nested-scroll gesture step.
+ *
+ * <p>Each pass is measured on a layout which has already been measured and laid out once, so
+ * the numbers reflect the steady state of a running screen.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CoordinatorLayoutBenchmark {
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+
+    @Param({"8", "32", "128"})
+    public int childCount;
+
+    @Param({"0", "4"})
+    public int anchorChainLength;
+
+    @Param({"0", "2"})
+    public int insetChildren;
+
+    @Param({"0", "4"})
+    public int dodgeChildren;
+
+    @Param({"0", "10"})
+    public int dependsOnPercent;
+
+    private CoordinatorLayout mLayout;
+    private View mTarget;
+    private int mWidthSpec;
+    private int mHeightSpec;
+    private final int[] mConsumed = new int[2];
+
+    @Setup
+    public void setUp() {
+        mLayout = SyntheticLayouts.build(childCount, anchorChainLength, insetChildren,
+                dodgeChildren, dependsOnPercent, 4);
+        mTarget = mLayout.getChildAt(0);
+        mWidthSpec = View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY);
+        mHeightSpec = View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY);
+        SyntheticLayouts.measureAndLayout(mLayout, WIDTH, HEIGHT);
+        mLayout.onChildViewsChanged(CoordinatorLayout.EVENT_PRE_DRAW);
+    }
+
+    @Benchmark
+    public void prepareChildren() {
+        mLayout.prepareChildren();
+    }
+
+    @Benchmark
+    public void measure(Blackhole bh) {
+        mLayout.onMeasure(mWidthSpec, mHeightSpec);
+        bh.consume(mLayout.getMeasuredWidth());
+    }
+
+    @Benchmark
+    public void layout() {
+        mLayout.onLayout(false, 0, 0, WIDTH, HEIGHT);
+    }
+
+    @Benchmark
+    public void preDraw() {
+        mLayout.onChildViewsChanged(CoordinatorLayout.EVENT_PRE_DRAW);
+    }
+
+    @Benchmark
+    public void nestedScrollEvent() {
+        mLayout.onChildViewsChanged(CoordinatorLayout.EVENT_NESTED_SCROLL);
+    }
+
+    @Benchmark
+    public void viewRemovedEvent() {
+        mLayout.onChildViewsChanged(CoordinatorLayout.EVENT_VIEW_REMOVED);
+    }
+
+    @Benchmark
+    public void nestedScrollGesture(Blackhole bh) {
+        final int type = ViewCompat.TYPE_TOUCH;
+        bh.consume(mLayout.onStartNestedScroll(mTarget, mTarget,
+                ViewCompat.SCROLL_AXIS_VERTICAL, type));
+        mLayout.onNestedScrollAccepted(mTarget, mTarget, ViewCompat.SCROLL_AXIS_VERTICAL, type);
+        for (int i = 0; i < 8; i++) {
+            mConsumed[0] = mConsumed[1] = 0;
+            mLayout.onNestedPreScroll(mTarget, 0, 24, mConsumed, type);
+            mConsumed[0] = mConsumed[1] = 0;
+            mLayout.onNestedScroll(mTarget, 0, 12, 0, 12, type, mConsumed);
+        }
+        mLayout.onStopNestedScroll(mTarget, type);
+        bh.consume(mConsumed);
+    }
+}
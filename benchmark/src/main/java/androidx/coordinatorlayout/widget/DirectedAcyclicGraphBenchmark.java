@@ -0,0 +1,88 @@
+//start - license
+/*
+ * Copyright (c) 2025 Ashera Cordova
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+//end - license
+
+package androidx.coordinatorlayout.widget;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks {@link DirectedAcyclicGraph} on random graphs where every node depends on up to
+ * {@link #edgesPerNode} earlier nodes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DirectedAcyclicGraphBenchmark {
+    @Param({"10", "100", "1000", "10000"})
+    public int nodeCount;
+
+    @Param({"2"})
+    public int edgesPerNode;
+
+    private final DirectedAcyclicGraph<Integer> mGraph = new DirectedAcyclicGraph<>();
+    private Integer[] mNodes;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(42);
+        mNodes = new Integer[nodeCount];
+        for (int i = 0; i < nodeCount; i++) {
+            mNodes[i] = i;
+            mGraph.addNode(mNodes[i]);
+        }
+        for (int i = 1; i < nodeCount; i++) {
+            for (int e = 0; e < edgesPerNode; e++) {
+                mGraph.addEdge(mNodes[i], mNodes[random.nextInt(i)]);
+            }
+        }
+    }
+
+    @Benchmark
+    public void getSortedList(Blackhole bh) {
+        bh.consume(mGraph.getSortedList());
+    }
+
+    @Benchmark
+    public void getOutgoingEdges(Blackhole bh) {
+        for (int i = 0; i < nodeCount; i++) {
+            bh.consume(mGraph.getOutgoingEdges(mNodes[i]));
+        }
+    }
+
+    @Benchmark
+    public void hasOutgoingEdges(Blackhole bh) {
+        for (int i = 0; i < nodeCount; i++) {
+            bh.consume(mGraph.hasOutgoingEdges(mNodes[i]));
+        }
+    }
+}
@@ -0,0 +1,277 @@
+//start - license
+/*
+ * Copyright (c) 2025 Ashera Cordova
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+//end - license
+
+package androidx.coordinatorlayout.widget;
+
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Random;
+
+import r.android.view.View;
+import androidx.core.view.ViewCompat;
+
+/**
+ * Replays a {@link NestedScrollTrace} against a synthetic {@link CoordinatorLayout} built from
+ * stub views, and prints per-event latency percentiles and allocations.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar androidx.coordinatorlayout.widget.NestedScrollTraceReplayer \
+ *     [--children N] [--warmup N] [--iterations N] trace.bin
+ * java -cp target/benchmarks.jar androidx.coordinatorlayout.widget.NestedScrollTraceReplayer \
+ *     --synthesize GESTURES trace.bin
+ * </pre>
+ *
+ * <p>The trace is decoded up front, so only the callbacks themselves are timed. Allocations are
+ * read from the HotSpot thread MX bean and corrected for the cost of reading them; they are
+ * reported as -1 on VMs which don't support it.</p>
+ */
+public final class NestedScrollTraceReplayer {
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+    private static final int EVENT_TYPES = NestedScrollTrace.EVENT_STOP + 1;
+    private static final int ARGS = 5;
+    private static final java.lang.management.ThreadMXBean THREAD_BEAN =
+            ManagementFactory.getThreadMXBean();
+    private static final boolean ALLOCATIONS_SUPPORTED =
+            THREAD_BEAN instanceof com.sun.management.ThreadMXBean
+                    && ((com.sun.management.ThreadMXBean) THREAD_BEAN)
+                            .isThreadAllocatedMemorySupported();
+
+    private final CoordinatorLayout mLayout;
+    private final int[] mConsumed = new int[2];
+    private View mTarget;
+
+    private int mEventCount;
+    private int[] mEvents = new int[256];
+    private int[] mArgs = new int[256 * ARGS];
+    private float[] mVelocities = new float[256 * 2];
+
+    private NestedScrollTraceReplayer(CoordinatorLayout layout) {
+        mLayout = layout;
+        mTarget = layout.getChildAt(0);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int children = 32;
+        int warmup = 20;
+        int iterations = 50;
+        int synthesize = 0;
+        String path = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--children":
+                    children = Integer.parseInt(args[++i]);
+                    break;
+                case "--warmup":
+                    warmup = Integer.parseInt(args[++i]);
+                    break;
+                case "--iterations":
+                    iterations = Integer.parseInt(args[++i]);
+                    break;
+                case "--synthesize":
+                    synthesize = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    path = args[i];
+                    break;
+            }
+        }
+        if (path == null) {
+            System.err.println("usage: NestedScrollTraceReplayer [--children N] [--warmup N]"
+                    + " [--iterations N] [--synthesize GESTURES] trace");
+            System.exit(2);
+        }
+
+        if (synthesize > 0) {
+            try (OutputStream out = new FileOutputStream(path)) {
+                synthesize(synthesize, children).writeTo(out);
+            }
+            return;
+        }
+
+        final CoordinatorLayout layout = SyntheticLayouts.build(children, 4, 2, 4, 10, 4);
+        SyntheticLayouts.measureAndLayout(layout, WIDTH, HEIGHT);
+        final NestedScrollTraceReplayer replayer = new NestedScrollTraceReplayer(layout);
+        try (InputStream in = new BufferedInputStream(new FileInputStream(path))) {
+            replayer.load(new NestedScrollTrace.Reader(in));
+        }
+        replayer.run(warmup, iterations, System.out);
+    }
+
+   /**
+     * Records a trace of {@code gestures} drag-then-fling gestures, each starting on a random
+     * child, without needing a layout.
+     */
+    static NestedScrollTrace.Recorder synthesize(int gestures, int children) {
+        final Random random = new Random(42);
+        final NestedScrollTrace.Recorder recorder = new NestedScrollTrace.Recorder();
+        for (int g = 0; g < gestures; g++) {
+            final int child = random.nextInt(children);
+            final int direction = random.nextBoolean() ? 1 : -1;
+            recorder.recordStart(child, ViewCompat.SCROLL_AXIS_VERTICAL, ViewCompat.TYPE_TOUCH);
+            recorder.recordAccepted(child, ViewCompat.SCROLL_AXIS_VERTICAL,
+                    ViewCompat.TYPE_TOUCH);
+            for (int i = 0, steps = 20 + random.nextInt(40); i < steps; i++) {
+                final int dy = direction * (1 + random.nextInt(48));
+                recorder.recordPreScroll(0, dy, ViewCompat.TYPE_TOUCH);
+                recorder.recordScroll(0, dy / 2, 0, dy - dy / 2, ViewCompat.TYPE_TOUCH);
+            }
+            final float velocity = direction * (500f + random.nextInt(4000));
+            recorder.recordPreFling(0f, velocity);
+            recorder.recordFling(0f, velocity, false);
+            recorder.recordStop(ViewCompat.TYPE_TOUCH);
+        }
+        return recorder;
+    }
+
+    private void load(NestedScrollTrace.Reader reader) throws IOException {
+        while (reader.next()) {
+            if (mEventCount == mEvents.length) {
+                mEvents = Arrays.copyOf(mEvents, mEventCount * 2);
+                mArgs = Arrays.copyOf(mArgs, mEventCount * 2 * ARGS);
+                mVelocities = Arrays.copyOf(mVelocities, mEventCount * 2 * 2);
+            }
+            final int event = reader.getEvent();
+            final int a = mEventCount * ARGS;
+            mEvents[mEventCount] = event;
+            if (event == NestedScrollTrace.EVENT_START
+                    || event == NestedScrollTrace.EVENT_ACCEPTED) {
+                mArgs[a] = reader.getChildIndex();
+                mArgs[a + 1] = reader.getAxes();
+            } else {
+                mArgs[a] = reader.getDx();
+                mArgs[a + 1] = reader.getDy();
+            }
+            mArgs[a + 2] = reader.getDxUnconsumed();
+            mArgs[a + 3] = reader.getDyUnconsumed();
+            mArgs[a + 4] = event == NestedScrollTrace.EVENT_FLING
+                    ? (reader.isConsumed() ? 1 : 0) : reader.getType();
+            mVelocities[mEventCount * 2] = reader.getVelocityX();
+            mVelocities[mEventCount * 2 + 1] = reader.getVelocityY();
+            mEventCount++;
+        }
+    }
+
+    private void run(int warmup, int iterations, PrintStream out) {
+        for (int i = 0; i < warmup; i++) {
+            for (int e = 0; e < mEventCount; e++) {
+                dispatch(e);
+            }
+        }
+
+        final int[] counts = new int[EVENT_TYPES];
+        for (int e = 0; e < mEventCount; e++) {
+            counts[mEvents[e]]++;
+        }
+        final long[][] latencies = new long[EVENT_TYPES][];
+        final long[] allocated = new long[EVENT_TYPES];
+        for (int t = 0; t < EVENT_TYPES; t++) {
+            latencies[t] = new long[counts[t] * iterations];
+        }
+        final int[] filled = new int[EVENT_TYPES];
+        final long calibration = allocatedBytes();
+        final long allocationOverhead = allocatedBytes() - calibration;
+
+        for (int i = 0; i < iterations; i++) {
+            for (int e = 0; e < mEventCount; e++) {
+                final int event = mEvents[e];
+                final long allocatedBefore = allocatedBytes();
+                final long start = System.nanoTime();
+                dispatch(e);
+                final long end = System.nanoTime();
+                final long allocatedAfter = allocatedBytes();
+                latencies[event][filled[event]++] = end - start;
+                allocated[event] += allocatedAfter - allocatedBefore - allocationOverhead;
+            }
+        }
+
+        out.printf("%d events x %d iterations, %d children%n", mEventCount, iterations,
+                mLayout.getChildCount());
+        out.printf("%-10s %8s %10s %10s %10s %10s %10s %12s%n", "event", "count", "p50 ns",
+                "p90 ns", "p99 ns", "p99.9 ns", "max ns", "alloc B/op");
+        for (int t = 1; t < EVENT_TYPES; t++) {
+            final long[] samples = latencies[t];
+            if (samples.length == 0) {
+                continue;
+            }
+            Arrays.sort(samples);
+            final long allocatedPerOp = ALLOCATIONS_SUPPORTED ? allocated[t] / samples.length : -1;
+            out.printf("%-10s %8d %10d %10d %10d %10d %10d %12d%n",
+                    NestedScrollTrace.eventName(t), samples.length, percentile(samples, 50),
+                    percentile(samples, 90), percentile(samples, 99), percentile(samples, 99.9),
+                    samples[samples.length - 1], allocatedPerOp);
+        }
+    }
+
+    private void dispatch(int e) {
+        final int a = e * ARGS;
+        switch (mEvents[e]) {
+            case NestedScrollTrace.EVENT_START:
+                mTarget = child(mArgs[a]);
+                mLayout.onStartNestedScroll(mTarget, mTarget, mArgs[a + 1], mArgs[a + 4]);
+                break;
+            case NestedScrollTrace.EVENT_ACCEPTED:
+                mTarget = child(mArgs[a]);
+                mLayout.onNestedScrollAccepted(mTarget, mTarget, mArgs[a + 1], mArgs[a + 4]);
+                break;
+            case NestedScrollTrace.EVENT_PRE_SCROLL:
+                mConsumed[0] = mConsumed[1] = 0;
+                mLayout.onNestedPreScroll(mTarget, mArgs[a], mArgs[a + 1], mConsumed,
+                        mArgs[a + 4]);
+                break;
+            case NestedScrollTrace.EVENT_SCROLL:
+                mConsumed[0] = mConsumed[1] = 0;
+                mLayout.onNestedScroll(mTarget, mArgs[a], mArgs[a + 1], mArgs[a + 2],
+                        mArgs[a + 3], mArgs[a + 4], mConsumed);
+                break;
+            case NestedScrollTrace.EVENT_PRE_FLING:
+                mLayout.onNestedPreFling(mTarget, mVelocities[e * 2], mVelocities[e * 2 + 1]);
+                break;
+            case NestedScrollTrace.EVENT_FLING:
+                mLayout.onNestedFling(mTarget, mVelocities[e * 2], mVelocities[e * 2 + 1],
+                        mArgs[a + 4] != 0);
+                break;
+            case NestedScrollTrace.EVENT_STOP:
+                mLayout.onStopNestedScroll(mTarget, mArgs[a + 4]);
+                break;
+        }
+    }
+
+    private View child(int index) {
+        final int count = mLayout.getChildCount();
+        return mLayout.getChildAt(index < 0 ? 0 : index % count);
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        final int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    private static long allocatedBytes() {
+        if (!ALLOCATIONS_SUPPORTED) {
+            return 0;
+        }
+        return ((com.sun.management.ThreadMXBean) THREAD_BEAN)
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,149 @@
+//start - license
+/*
+ * Copyright (c) 2025 Ashera Cordova
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+//end - license
+
+package androidx.coordinatorlayout.widget;
+
+import r.android.view.Gravity;
+import r.android.view.View;
+import androidx.core.view.GravityCompat;
+import androidx.core.view.ViewCompat;
+
+/**
+ * Builds synthetic {@link CoordinatorLayout}s out of plain stub views for the benchmarks and
+ * the trace replayer.
+ *
+ * <p>Child {@code i} gets the view id {@code i + 1}. Every dependency, whether it comes from an
+ * anchor, an inset edge or {@code layoutDependsOn}, points from a child to one with a lower
+ * id, so the generated graph is always acyclic.</p>
+ */
+final class SyntheticLayouts {
+    static final int CHILD_WIDTH = 120;
+    static final int CHILD_HEIGHT = 48;
+
+    private SyntheticLayouts() {
+    }
+
+   /**
+     * Creates a layout.
+     *
+     * @param childCount the number of direct children
+     * @param anchorChainLength children are grouped in runs of this length, each anchored to the
+     *                          previous one in its run; 0 or 1 disables anchors
+     * @param insetChildren the number of children, taken from the start, with a bottom inset edge
+     * @param dodgeChildren the number of children, taken from the end, which dodge the bottom edge
+     * @param dependsOnPercent the chance, in percent, that a child's behavior depends on any given
+     *                         earlier child
+     * @param nestedScrollEvery every n-th child's behavior accepts vertical nested scrolls; 0
+     *                          disables nested scrolling
+     */
+    static CoordinatorLayout build(int childCount, int anchorChainLength, int insetChildren,
+            int dodgeChildren, int dependsOnPercent, int nestedScrollEvery) {
+        insetChildren = Math.min(insetChildren, childCount);
+        dodgeChildren = Math.min(dodgeChildren, childCount - insetChildren);
+
+        final CoordinatorLayout layout = new CoordinatorLayout();
+        for (int i = 0; i < childCount; i++) {
+            final View child = new View();
+            child.setId(i + 1);
+
+            final CoordinatorLayout.LayoutParams lp =
+                    new CoordinatorLayout.LayoutParams(CHILD_WIDTH, CHILD_HEIGHT);
+            if (anchorChainLength > 1 && i % anchorChainLength != 0) {
+                lp.setAnchorId(i);
+                lp.anchorGravity = Gravity.BOTTOM | GravityCompat.END;
+                lp.gravity = Gravity.TOP | GravityCompat.START;
+            }
+            if (i < insetChildren) {
+                lp.insetEdge = Gravity.BOTTOM;
+                lp.gravity = Gravity.BOTTOM;
+            }
+            if (i >= childCount - dodgeChildren) {
+                lp.dodgeInsetEdges = Gravity.BOTTOM;
+            }
+            final boolean nestedScroll = nestedScrollEvery > 0 && i % nestedScrollEvery == 0;
+            if (dependsOnPercent > 0 || nestedScroll) {
+                lp.setBehavior(new SyntheticBehavior(dependsOnPercent, nestedScroll));
+            }
+            layout.addView(child, lp);
+        }
+        return layout;
+    }
+
+   /**
+     * Runs a full measure and layout pass at the given size.
+     */
+    static void measureAndLayout(CoordinatorLayout layout, int width, int height) {
+        layout.measure(View.MeasureSpec.makeMeasureSpec(width, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(height, View.MeasureSpec.EXACTLY));
+        layout.layout(0, 0, width, height);
+    }
+
+   /**
+     * A behavior which depends on a deterministic pseudo-random subset of the earlier children
+     * and optionally takes part in vertical nested scrolls, consuming half of each pre-scroll.
+     */
+    static final class SyntheticBehavior extends CoordinatorLayout.Behavior<View> {
+        private final int mDependsOnPercent;
+        private final boolean mNestedScroll;
+
+        SyntheticBehavior(int dependsOnPercent, boolean nestedScroll) {
+            mDependsOnPercent = dependsOnPercent;
+            mNestedScroll = nestedScroll;
+        }
+
+        @Override
+        public int getCallbackFlags() {
+            return CALLBACK_DEPENDENCY | (mNestedScroll ? CALLBACK_NESTED_SCROLL : 0);
+        }
+
+        @Override
+        public boolean layoutDependsOn(CoordinatorLayout parent, View child, View dependency) {
+            final int childId = child.getId();
+            final int dependencyId = dependency.getId();
+            if (dependencyId >= childId) {
+                return false;
+            }
+            // Knuth's multiplicative hash of the pair, so the graph is stable across runs
+            final int hash = (childId * 31 + dependencyId) * 0x9E3779B1;
+            return ((hash >>> 16) % 100) < mDependsOnPercent;
+        }
+
+        @Override
+        public boolean onDependentViewChanged(CoordinatorLayout parent, View child,
+                View dependency) {
+            return false;
+        }
+
+        @Override
+        public boolean onStartNestedScroll(CoordinatorLayout coordinatorLayout, View child,
+                View directTargetChild, View target, int axes, int type) {
+            return mNestedScroll && (axes & ViewCompat.SCROLL_AXIS_VERTICAL) != 0;
+        }
+
+        @Override
+        public void onNestedPreScroll(CoordinatorLayout coordinatorLayout, View child,
+                View target, int dx, int dy, int[] consumed, int type) {
+            consumed[1] = dy / 2;
+        }
+
+        @Override
+        public void onNestedScroll(CoordinatorLayout coordinatorLayout, View child, View target,
+                int dxConsumed, int dyConsumed, int dxUnconsumed, int dyUnconsumed, int type,
+                int[] consumed) {
+            consumed[1] += dyUnconsumed;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+//start - license
+/*
+ * Copyright (c) 2025 Ashera Cordova
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+//end - license
+
+package androidx.coordinatorlayout.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The JDK Flight Recorder events emitted by {@link JfrLayoutTraceListener}. All of them are in
+ * the "CoordinatorLayout" category and can be enabled individually by name in a recording
+ * configuration.
+ */
+public final class CoordinatorLayoutEvents {
+    private CoordinatorLayoutEvents() {
+    }
+
+   /**
+     * Fields shared by every pass event.
+     */
+    abstract static class PassEvent extends Event {
+        @Label("Layout")
+        @Description("Identity hash code of the CoordinatorLayout")
+        int layout;
+
+        @Label("Child Count")
+        int childCount;
+    }
+
+    @Name("androidx.coordinatorlayout.PrepareChildren")
+    @Label("Dependency Graph Rebuild")
+    @Description("prepareChildren rebuilding the child dependency graph and layout plan")
+    @Category("CoordinatorLayout")
+    public static final class PrepareChildren extends PassEvent {
+    }
+
+    @Name("androidx.coordinatorlayout.Measure")
+    @Label("Measure")
+    @Category("CoordinatorLayout")
+    public static final class Measure extends PassEvent {
+    }
+
+    @Name("androidx.coordinatorlayout.Layout")
+    @Label("Layout")
+    @Category("CoordinatorLayout")
+    public static final class Layout extends PassEvent {
+    }
+
+    @Name("androidx.coordinatorlayout.DependencyDispatch")
+    @Label("Dependency Dispatch")
+    @Description("One onChildViewsChanged pass over the dependency sorted children")
+    @Category("CoordinatorLayout")
+    public static final class DependencyDispatch extends PassEvent {
+        @Label("Event Type")
+        String eventType;
+    }
+
+    @Name("androidx.coordinatorlayout.NestedScroll")
+    @Label("Nested Scroll")
+    @Description("A nested scroll sequence, from the layout accepting it until it stops")
+    @Category("CoordinatorLayout")
+    public static final class NestedScroll extends Event {
+        @Label("Layout")
+        @Description("Identity hash code of the CoordinatorLayout")
+        int layout;
+
+        @Label("Target Id")
+        int targetId;
+
+        @Label("Axes")
+        int axes;
+
+        @Label("Type")
+        @Description("0 for touch scrolls, 1 for flings")
+        int type;
+    }
+}
@@ -0,0 +1,142 @@
+//start - license
+/*
+ * Copyright (c) 2025 Ashera Cordova
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+//end - license
+
+package androidx.coordinatorlayout.jfr;
+
+import androidx.coordinatorlayout.widget.CoordinatorLayout;
+import androidx.coordinatorlayout.widget.LayoutPassMetrics;
+import androidx.coordinatorlayout.widget.LayoutTraceListener;
+import jdk.jfr.EventType;
+import r.android.view.View;
+
+/**
+ * Turns a {@link CoordinatorLayout}'s trace callbacks into {@link CoordinatorLayoutEvents}.
+ *
+ * <p>Every callback first checks whether its event type is enabled in a running recording and
+ * returns straight away if not, so an installed listener allocates nothing while JFR is off.</p>
+ *
+ * <pre>
+ * JfrLayoutTraceListener.install(coordinatorLayout);
+ * </pre>
+ */
+public final class JfrLayoutTraceListener implements LayoutTraceListener {
+    private static final EventType PREPARE_CHILDREN =
+            EventType.getEventType(CoordinatorLayoutEvents.PrepareChildren.class);
+    private static final EventType MEASURE =
+            EventType.getEventType(CoordinatorLayoutEvents.Measure.class);
+    private static final EventType LAYOUT =
+            EventType.getEventType(CoordinatorLayoutEvents.Layout.class);
+    private static final EventType DEPENDENCY_DISPATCH =
+            EventType.getEventType(CoordinatorLayoutEvents.DependencyDispatch.class);
+    private static final EventType NESTED_SCROLL =
+            EventType.getEventType(CoordinatorLayoutEvents.NestedScroll.class);
+
+    private final CoordinatorLayoutEvents.PassEvent[] mPasses =
+            new CoordinatorLayoutEvents.PassEvent[LayoutPassMetrics.PASS_COUNT];
+    // Indexed by nested scroll type, touch and non-touch sequences overlap during a fling
+    private final CoordinatorLayoutEvents.NestedScroll[] mNestedScrolls =
+            new CoordinatorLayoutEvents.NestedScroll[2];
+
+   /**
+     * Creates a listener and installs it on {@code layout}. A listener keeps per-layout state,
+     * so every layout needs its own.
+     */
+    public static JfrLayoutTraceListener install(CoordinatorLayout layout) {
+        final JfrLayoutTraceListener listener = new JfrLayoutTraceListener();
+        layout.setLayoutTraceListener(listener);
+        return listener;
+    }
+
+    @Override
+    public void onPassBegin(CoordinatorLayout parent, int pass) {
+        final CoordinatorLayoutEvents.PassEvent event;
+        switch (pass) {
+            case LayoutPassMetrics.PASS_PREPARE_CHILDREN:
+                if (!PREPARE_CHILDREN.isEnabled()) {
+                    return;
+                }
+                event = new CoordinatorLayoutEvents.PrepareChildren();
+                break;
+            case LayoutPassMetrics.PASS_MEASURE:
+                if (!MEASURE.isEnabled()) {
+                    return;
+                }
+                event = new CoordinatorLayoutEvents.Measure();
+                break;
+            case LayoutPassMetrics.PASS_LAYOUT:
+                if (!LAYOUT.isEnabled()) {
+                    return;
+                }
+                event = new CoordinatorLayoutEvents.Layout();
+                break;
+            default:
+                if (!DEPENDENCY_DISPATCH.isEnabled()) {
+                    return;
+                }
+                event = new CoordinatorLayoutEvents.DependencyDispatch();
+                break;
+        }
+        event.begin();
+        mPasses[pass] = event;
+    }
+
+    @Override
+    public void onPassEnd(CoordinatorLayout parent, int pass, int childCount) {
+        final CoordinatorLayoutEvents.PassEvent event = mPasses[pass];
+        if (event == null) {
+            return;
+        }
+        mPasses[pass] = null;
+        event.end();
+        if (event.shouldCommit()) {
+            event.layout = System.identityHashCode(parent);
+            event.childCount = childCount;
+            if (event instanceof CoordinatorLayoutEvents.DependencyDispatch) {
+                ((CoordinatorLayoutEvents.DependencyDispatch) event).eventType =
+                        LayoutPassMetrics.passName(pass);
+            }
+            event.commit();
+        }
+    }
+
+    @Override
+    public void onNestedScrollStart(CoordinatorLayout parent, View target, int axes, int type) {
+        if (type < 0 || type >= mNestedScrolls.length || !NESTED_SCROLL.isEnabled()) {
+            return;
+        }
+        final CoordinatorLayoutEvents.NestedScroll event =
+                new CoordinatorLayoutEvents.NestedScroll();
+        event.axes = axes;
+        event.type = type;
+        event.begin();
+        mNestedScrolls[type] = event;
+    }
+
+    @Override
+    public void onNestedScrollStop(CoordinatorLayout parent, View target, int type) {
+        if (type < 0 || type >= mNestedScrolls.length || mNestedScrolls[type] == null) {
+            return;
+        }
+        final CoordinatorLayoutEvents.NestedScroll event = mNestedScrolls[type];
+        mNestedScrolls[type] = null;
+        event.end();
+        if (event.shouldCommit()) {
+            event.layout = System.identityHashCode(parent);
+            event.targetId = target.getId();
+            event.commit();
+        }
+    }
+}
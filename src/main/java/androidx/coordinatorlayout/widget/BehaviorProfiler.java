@@ -0,0 +1,330 @@
+//start - license
+/*
+ * Copyright (c) 2025 Ashera Cordova
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+//end - license
+
+package androidx.coordinatorlayout.widget;
+
+import r.android.annotation.NonNull;
+import r.android.graphics.Rect;
+import r.android.view.View;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Records how often and for how long each {@link CoordinatorLayout.Behavior} callback runs,
+ * per behavior class and child id.
+ *
+ * <p>Once installed with {@link CoordinatorLayout#setBehaviorProfiler(BehaviorProfiler)}, the
+ * layout dispatches to a timing wrapper around each child's behavior. The wrapper is internal to
+ * the layout: {@link CoordinatorLayout.LayoutParams#getBehavior()} keeps returning the behavior
+ * the app set. A profiler may be shared between layouts, in which case children with the same
+ * behavior class and id are reported together.</p>
+ */
+public final class BehaviorProfiler {
+    public static final int CALLBACK_LAYOUT_DEPENDS_ON = 0;
+    public static final int CALLBACK_ON_DEPENDENT_VIEW_CHANGED = 1;
+    public static final int CALLBACK_ON_MEASURE_CHILD = 2;
+    public static final int CALLBACK_ON_LAYOUT_CHILD = 3;
+    public static final int CALLBACK_ON_NESTED_PRE_SCROLL = 4;
+    public static final int CALLBACK_ON_NESTED_SCROLL = 5;
+    public static final int CALLBACK_ON_NESTED_FLING = 6;
+    private static final int CALLBACK_COUNT = 7;
+
+    private static final String[] CALLBACK_NAMES = {
+            "layoutDependsOn",
+            "onDependentViewChanged",
+            "onMeasureChild",
+            "onLayoutChild",
+            "onNestedPreScroll",
+            "onNestedScroll",
+            "onNestedFling",
+    };
+
+    private final List<Entry> mEntries = new ArrayList<>();
+
+   /**
+     * Returns the behavior the layout should dispatch to for {@code child}: {@code behavior}
+     * itself when it is null, otherwise a profiling wrapper. {@code current} is the wrapper
+     * returned last time and is reused when it still matches.
+     */
+    CoordinatorLayout.Behavior wrap(CoordinatorLayout.Behavior behavior, View child,
+            CoordinatorLayout.Behavior current) {
+        if (behavior == null) {
+            return null;
+        }
+        final int childId = child.getId();
+        if (current instanceof ProfilingBehavior) {
+            final ProfilingBehavior profiling = (ProfilingBehavior) current;
+            if (profiling.mDelegate == behavior && profiling.mEntry.mChildId == childId
+                    && profiling.mProfiler == this) {
+                return current;
+            }
+        }
+        return new ProfilingBehavior(this, behavior, obtainEntry(behavior.getClass(), childId));
+    }
+
+    private Entry obtainEntry(Class<?> behaviorClass, int childId) {
+        for (int i = 0, count = mEntries.size(); i < count; i++) {
+            final Entry entry = mEntries.get(i);
+            if (entry.mBehaviorClass == behaviorClass && entry.mChildId == childId) {
+                return entry;
+            }
+        }
+        final Entry entry = new Entry(behaviorClass, childId);
+        mEntries.add(entry);
+        return entry;
+    }
+
+   /**
+     * Returns the number of calls recorded for a callback, summed over all behaviors.
+     *
+     * @param callback one of the {@code CALLBACK_} constants
+     */
+    public long getCallCount(int callback) {
+        long calls = 0;
+        for (int i = 0, count = mEntries.size(); i < count; i++) {
+            calls += mEntries.get(i).mCalls[callback];
+        }
+        return calls;
+    }
+
+   /**
+     * Clears all recorded calls. Behaviors which are currently wrapped keep being profiled.
+     */
+    public void reset() {
+        for (int i = 0, count = mEntries.size(); i < count; i++) {
+            mEntries.get(i).reset();
+        }
+    }
+
+   /**
+     * Returns a table with one row per behavior class, child id and callback which was called at
+     * least once, slowest cumulative time first.
+     */
+    @NonNull
+    public String dump() {
+        final List<Row> rows = new ArrayList<>();
+        for (int i = 0, count = mEntries.size(); i < count; i++) {
+            final Entry entry = mEntries.get(i);
+            for (int callback = 0; callback < CALLBACK_COUNT; callback++) {
+                if (entry.mCalls[callback] > 0) {
+                    rows.add(new Row(entry, callback));
+                }
+            }
+        }
+        rows.sort(new Comparator<Row>() {
+            @Override
+            public int compare(Row a, Row b) {
+                return Long.compare(b.mEntry.mTotalNanos[b.mCallback],
+                        a.mEntry.mTotalNanos[a.mCallback]);
+            }
+        });
+
+        final StringBuilder out = new StringBuilder();
+        out.append(String.format(Locale.US, "%-40s %8s %-24s %10s %12s %10s %10s%n", "behavior",
+                "child id", "callback", "calls", "total us", "avg us", "max us"));
+        for (int i = 0, count = rows.size(); i < count; i++) {
+            final Entry entry = rows.get(i).mEntry;
+            final int callback = rows.get(i).mCallback;
+            final long calls = entry.mCalls[callback];
+            final long total = entry.mTotalNanos[callback];
+            out.append(String.format(Locale.US, "%-40s %8d %-24s %10d %12.1f %10.2f %10.1f%n",
+                    entry.mBehaviorClass.getName(), entry.mChildId, CALLBACK_NAMES[callback],
+                    calls, total / 1000.0, total / 1000.0 / calls,
+                    entry.mMaxNanos[callback] / 1000.0));
+        }
+        return out.toString();
+    }
+
+    private static final class Entry {
+        final Class<?> mBehaviorClass;
+        final int mChildId;
+        final long[] mCalls = new long[CALLBACK_COUNT];
+        final long[] mTotalNanos = new long[CALLBACK_COUNT];
+        final long[] mMaxNanos = new long[CALLBACK_COUNT];
+
+        Entry(Class<?> behaviorClass, int childId) {
+            mBehaviorClass = behaviorClass;
+            mChildId = childId;
+        }
+
+        void record(int callback, long startNanos) {
+            final long duration = System.nanoTime() - startNanos;
+            mCalls[callback]++;
+            mTotalNanos[callback] += duration;
+            if (duration > mMaxNanos[callback]) {
+                mMaxNanos[callback] = duration;
+            }
+        }
+
+        void reset() {
+            Arrays.fill(mCalls, 0);
+            Arrays.fill(mTotalNanos, 0);
+            Arrays.fill(mMaxNanos, 0);
+        }
+    }
+
+    private static final class Row {
+        final Entry mEntry;
+        final int mCallback;
+
+        Row(Entry entry, int callback) {
+            mEntry = entry;
+            mCallback = callback;
+        }
+    }
+
+   /**
+     * Forwards every callback the layout dispatches to the wrapped behavior, timing the profiled
+     * ones.
+     */
+    @SuppressWarnings("unchecked")
+    static final class ProfilingBehavior extends CoordinatorLayout.Behavior<View> {
+        final BehaviorProfiler mProfiler;
+        final CoordinatorLayout.Behavior mDelegate;
+        final Entry mEntry;
+
+        ProfilingBehavior(BehaviorProfiler profiler, CoordinatorLayout.Behavior delegate,
+                Entry entry) {
+            mProfiler = profiler;
+            mDelegate = delegate;
+            mEntry = entry;
+        }
+
+        @Override
+        public int getCallbackFlags() {
+            return mDelegate.getCallbackFlags();
+        }
+
+        @Override
+        public boolean layoutDependsOn(CoordinatorLayout parent, View child, View dependency) {
+            final long start = System.nanoTime();
+            final boolean result = mDelegate.layoutDependsOn(parent, child, dependency);
+            mEntry.record(CALLBACK_LAYOUT_DEPENDS_ON, start);
+            return result;
+        }
+
+        @Override
+        public boolean onDependentViewChanged(CoordinatorLayout parent, View child,
+                View dependency) {
+            final long start = System.nanoTime();
+            final boolean result = mDelegate.onDependentViewChanged(parent, child, dependency);
+            mEntry.record(CALLBACK_ON_DEPENDENT_VIEW_CHANGED, start);
+            return result;
+        }
+
+        @Override
+        public void onDependentViewRemoved(CoordinatorLayout parent, View child,
+                View dependency) {
+            mDelegate.onDependentViewRemoved(parent, child, dependency);
+        }
+
+        @Override
+        public boolean onMeasureChild(CoordinatorLayout parent, View child,
+                int parentWidthMeasureSpec, int widthUsed, int parentHeightMeasureSpec,
+                int heightUsed) {
+            final long start = System.nanoTime();
+            final boolean result = mDelegate.onMeasureChild(parent, child,
+                    parentWidthMeasureSpec, widthUsed, parentHeightMeasureSpec, heightUsed);
+            mEntry.record(CALLBACK_ON_MEASURE_CHILD, start);
+            return result;
+        }
+
+        @Override
+        public boolean canSkipMeasure(CoordinatorLayout parent, View child) {
+            return mDelegate.canSkipMeasure(parent, child);
+        }
+
+        @Override
+        public boolean onLayoutChild(CoordinatorLayout parent, View child, int layoutDirection) {
+            final long start = System.nanoTime();
+            final boolean result = mDelegate.onLayoutChild(parent, child, layoutDirection);
+            mEntry.record(CALLBACK_ON_LAYOUT_CHILD, start);
+            return result;
+        }
+
+        @Override
+        public boolean onStartNestedScroll(CoordinatorLayout coordinatorLayout, View child,
+                View directTargetChild, View target, int axes, int type) {
+            return mDelegate.onStartNestedScroll(coordinatorLayout, child, directTargetChild,
+                    target, axes, type);
+        }
+
+        @Override
+        public void onNestedScrollAccepted(CoordinatorLayout coordinatorLayout, View child,
+                View directTargetChild, View target, int axes, int type) {
+            mDelegate.onNestedScrollAccepted(coordinatorLayout, child, directTargetChild, target,
+                    axes, type);
+        }
+
+        @Override
+        public void onStopNestedScroll(CoordinatorLayout coordinatorLayout, View child,
+                View target, int type) {
+            mDelegate.onStopNestedScroll(coordinatorLayout, child, target, type);
+        }
+
+        @Override
+        public void onNestedScroll(CoordinatorLayout coordinatorLayout, View child, View target,
+                int dxConsumed, int dyConsumed, int dxUnconsumed, int dyUnconsumed, int type,
+                int[] consumed) {
+            final long start = System.nanoTime();
+            mDelegate.onNestedScroll(coordinatorLayout, child, target, dxConsumed, dyConsumed,
+                    dxUnconsumed, dyUnconsumed, type, consumed);
+            mEntry.record(CALLBACK_ON_NESTED_SCROLL, start);
+        }
+
+        @Override
+        public void onNestedPreScroll(CoordinatorLayout coordinatorLayout, View child,
+                View target, int dx, int dy, int[] consumed, int type) {
+            final long start = System.nanoTime();
+            mDelegate.onNestedPreScroll(coordinatorLayout, child, target, dx, dy, consumed,
+                    type);
+            mEntry.record(CALLBACK_ON_NESTED_PRE_SCROLL, start);
+        }
+
+        @Override
+        public boolean onNestedFling(CoordinatorLayout coordinatorLayout, View child,
+                View target, float velocityX, float velocityY, boolean consumed) {
+            final long start = System.nanoTime();
+            final boolean result = mDelegate.onNestedFling(coordinatorLayout, child, target,
+                    velocityX, velocityY, consumed);
+            mEntry.record(CALLBACK_ON_NESTED_FLING, start);
+            return result;
+        }
+
+        @Override
+        public boolean onNestedPreFling(CoordinatorLayout coordinatorLayout, View child,
+                View target, float velocityX, float velocityY) {
+            return mDelegate.onNestedPreFling(coordinatorLayout, child, target, velocityX,
+                    velocityY);
+        }
+
+        @Override
+        public CoordinatorLayout.WindowInsetsCompat onApplyWindowInsets(
+                CoordinatorLayout coordinatorLayout, View child,
+                CoordinatorLayout.WindowInsetsCompat insets) {
+            return mDelegate.onApplyWindowInsets(coordinatorLayout, child, insets);
+        }
+
+        @Override
+        public boolean getInsetDodgeRect(CoordinatorLayout parent, View child, Rect rect) {
+            return mDelegate.getInsetDodgeRect(parent, child, rect);
+        }
+    }
+}
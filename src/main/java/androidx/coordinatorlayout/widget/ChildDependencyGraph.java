@@ -0,0 +1,448 @@
+//start - license
+/*
+ * Copyright (c) 2025 Ashera Cordova
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+//end - license
+
+package androidx.coordinatorlayout.widget;
+
+import r.android.annotation.NonNull;
+import r.android.view.View;
+
+/**
+ * The dependency graph of the direct children of a {@link CoordinatorLayout}, keyed by child
+ * index.
+ *
+ * <p>Edges are kept in two compressed (CSR) adjacency arrays: the dependencies of each node,
+ * in the order they were added, and the dependents of each node, in topological order. Sort
+ * marks are bitsets, so rebuilding the graph does not allocate once the arrays have grown to
+ * the size of the layout.</p>
+ *
+ * <p>Each dependent edge also counts how often {@code onDependentViewChanged} was dispatched over
+ * it and how often that returned true. The counts start from zero whenever the graph is
+ * rebuilt.</p>
+ */
+final class ChildDependencyGraph {
+    /** The dependent is anchored to the dependency. */
+    static final int EDGE_ANCHOR = 1;
+    /** The dependent dodges the inset edge of the dependency. */
+    static final int EDGE_DODGE = 1 << 1;
+    /** The dependent's behavior returned true from {@code layoutDependsOn}. */
+    static final int EDGE_BEHAVIOR = 1 << 2;
+
+    private View[] mChildren = new View[0];
+    private int mNodeCount;
+    private int mBuildNode;
+
+    // Dependencies of node n are mDependencies[mDependencyStart[n] .. mDependencyStart[n + 1])
+    private int[] mDependencyStart = new int[1];
+    private int[] mDependencies = new int[0];
+    private int[] mDependencyFlags = new int[0];
+    private int mEdgeCount;
+
+    // Dependents of node n are mDependents[mDependentStart[n] .. mDependentStart[n + 1])
+    private int[] mDependentStart = new int[1];
+    private int[] mDependents = new int[0];
+    private int[] mDependentFlags = new int[0];
+    private int[] mDependentDispatchCounts = new int[0];
+    private int[] mDependentHandledCounts = new int[0];
+
+    private int[] mSortedNodes = new int[0];
+    private int[] mSortedPositions = new int[0];
+
+    // Worklist state, indexed by sorted position
+    private long[] mDirty = new long[0];
+    private long[] mAlwaysVisited = new long[0];
+
+    private long[] mSortOnStack = new long[0];
+    private long[] mSortDone = new long[0];
+    private int[] mSortStack = new int[0];
+    private int[] mSortEdgeCursor = new int[0];
+
+   /**
+     * Starts building a new graph of {@code nodeCount} nodes, discarding the previous one.
+     *
+     * <p>Nodes must then be added in ascending order through {@link #addNode(int, View)},
+     * each followed by its edges, and the graph completed with {@link #endBuild()}.</p>
+     */
+    void beginBuild(int nodeCount) {
+        if (mChildren.length < nodeCount) {
+            mChildren = new View[nodeCount];
+            mDependencyStart = new int[nodeCount + 1];
+            mDependentStart = new int[nodeCount + 1];
+            mSortedNodes = new int[nodeCount];
+            mSortedPositions = new int[nodeCount];
+            mSortStack = new int[nodeCount];
+            mSortEdgeCursor = new int[nodeCount];
+            final int words = (nodeCount + 63) >> 6;
+            mSortOnStack = new long[words];
+            mSortDone = new long[words];
+            mDirty = new long[words];
+            mAlwaysVisited = new long[words];
+        } else {
+            for (int i = nodeCount; i < mNodeCount; i++) {
+                mChildren[i] = null;
+            }
+        }
+        mNodeCount = nodeCount;
+        mBuildNode = -1;
+        mEdgeCount = 0;
+    }
+
+   /**
+     * Add a node to the graph.
+     *
+     * @param node the child index, which must follow the previously added node
+     * @param child the child view at that index
+     */
+    void addNode(int node, @NonNull View child) {
+        if (node <= mBuildNode || node >= mNodeCount) {
+            throw new IllegalArgumentException("Nodes must be added in ascending order");
+        }
+        for (int i = mBuildNode + 1; i <= node; i++) {
+            mDependencyStart[i] = mEdgeCount;
+        }
+        mChildren[node] = child;
+        mBuildNode = node;
+    }
+
+   /**
+     * Add an edge from the most recently added node to one of its dependencies.
+     *
+     * @param flags a combination of {@link #EDGE_ANCHOR}, {@link #EDGE_DODGE} and
+     *              {@link #EDGE_BEHAVIOR} describing why the edge exists
+     */
+    void addDependency(int node, int dependency, int flags) {
+        if (node != mBuildNode || dependency < 0 || dependency >= mNodeCount) {
+            throw new IllegalArgumentException("Edges must be added right after their node");
+        }
+        if (mEdgeCount == mDependencies.length) {
+            final int capacity = Math.max(8, mEdgeCount * 2);
+            final int[] dependencies = new int[capacity];
+            System.arraycopy(mDependencies, 0, dependencies, 0, mEdgeCount);
+            mDependencies = dependencies;
+            final int[] dependencyFlags = new int[capacity];
+            System.arraycopy(mDependencyFlags, 0, dependencyFlags, 0, mEdgeCount);
+            mDependencyFlags = dependencyFlags;
+            mDependents = new int[capacity];
+            mDependentFlags = new int[capacity];
+            mDependentDispatchCounts = new int[capacity];
+            mDependentHandledCounts = new int[capacity];
+        }
+        mDependencies[mEdgeCount] = dependency;
+        mDependencyFlags[mEdgeCount] = flags;
+        mEdgeCount++;
+    }
+
+   /**
+     * Completes the graph: topologically sorts it and builds the dependent lists.
+     *
+     * @throws IllegalStateException if the graph contains cyclic dependencies
+     */
+    void endBuild() {
+        for (int i = mBuildNode + 1; i <= mNodeCount; i++) {
+            mDependencyStart[i] = mEdgeCount;
+        }
+        mBuildNode = mNodeCount;
+        sort();
+        final int words = (mNodeCount + 63) >> 6;
+        for (int i = 0; i < words; i++) {
+            mDirty[i] = 0;
+            mAlwaysVisited[i] = 0;
+        }
+
+        // Count the dependents of each node, then fill them in topological order
+        final int[] start = mDependentStart;
+        for (int i = 0; i <= mNodeCount; i++) {
+            start[i] = 0;
+        }
+        for (int e = 0; e < mEdgeCount; e++) {
+            start[mDependencies[e] + 1]++;
+        }
+        for (int i = 0; i < mNodeCount; i++) {
+            start[i + 1] += start[i];
+        }
+        final int[] fill = mSortEdgeCursor;
+        System.arraycopy(start, 0, fill, 0, mNodeCount);
+        for (int pos = 0; pos < mNodeCount; pos++) {
+            final int node = mSortedNodes[pos];
+            for (int e = mDependencyStart[node], end = mDependencyStart[node + 1]; e < end; e++) {
+                final int edge = fill[mDependencies[e]]++;
+                mDependents[edge] = node;
+                mDependentFlags[edge] = mDependencyFlags[e];
+            }
+        }
+        resetDispatchCounts();
+    }
+
+    private void sort() {
+        final int words = (mNodeCount + 63) >> 6;
+        for (int i = 0; i < words; i++) {
+            mSortOnStack[i] = 0;
+            mSortDone[i] = 0;
+        }
+        int sorted = 0;
+        for (int root = 0; root < mNodeCount; root++) {
+            if (isSet(mSortDone, root)) {
+                continue;
+            }
+            // Post-order DFS over dependencies, so that every node follows its dependencies
+            int depth = 0;
+            mSortStack[0] = root;
+            mSortEdgeCursor[0] = mDependencyStart[root];
+            set(mSortOnStack, root);
+            while (depth >= 0) {
+                final int node = mSortStack[depth];
+                final int cursor = mSortEdgeCursor[depth];
+                if (cursor < mDependencyStart[node + 1]) {
+                    mSortEdgeCursor[depth] = cursor + 1;
+                    final int next = mDependencies[cursor];
+                    if (isSet(mSortDone, next)) {
+                        continue;
+                    }
+                    if (isSet(mSortOnStack, next)) {
+                        throw new IllegalStateException("This graph contains cyclic dependencies: "
+                                + describeCycle(next, depth));
+                    }
+                    depth++;
+                    mSortStack[depth] = next;
+                    mSortEdgeCursor[depth] = mDependencyStart[next];
+                    set(mSortOnStack, next);
+                } else {
+                    clear(mSortOnStack, node);
+                    set(mSortDone, node);
+                    mSortedPositions[node] = sorted;
+                    mSortedNodes[sorted++] = node;
+                    depth--;
+                }
+            }
+        }
+    }
+
+    private String describeCycle(int node, int depth) {
+        final StringBuilder sb = new StringBuilder();
+        int start = depth;
+        while (mSortStack[start] != node) {
+            start--;
+        }
+        for (int i = start; i <= depth; i++) {
+            sb.append(mChildren[mSortStack[i]]).append(" -> ");
+        }
+        return sb.append(mChildren[node]).toString();
+    }
+
+   /**
+     * Returns the number of nodes in the graph.
+     */
+    int size() {
+        return mNodeCount;
+    }
+
+   /**
+     * Returns the number of edges in the graph.
+     */
+    int getEdgeCount() {
+        return mEdgeCount;
+    }
+
+   /**
+     * Returns the child view of the given node.
+     */
+    View getChild(int node) {
+        return mChildren[node];
+    }
+
+   /**
+     * Returns the node at {@code position} in topological order, where every node comes after
+     * all of its dependencies.
+     */
+    int getSortedNode(int position) {
+        return mSortedNodes[position];
+    }
+
+   /**
+     * Returns the position of the given node in topological order.
+     */
+    int getSortedPosition(int node) {
+        return mSortedPositions[node];
+    }
+
+   /**
+     * Returns the index of the first dependency edge of the given node. Edges of a node run
+     * up to {@link #getDependenciesEnd(int)}; use {@link #getDependency(int)} to read them.
+     */
+    int getDependenciesStart(int node) {
+        return mDependencyStart[node];
+    }
+
+    int getDependenciesEnd(int node) {
+        return mDependencyStart[node + 1];
+    }
+
+    int getDependency(int edge) {
+        return mDependencies[edge];
+    }
+
+    int getDependencyFlags(int edge) {
+        return mDependencyFlags[edge];
+    }
+
+   /**
+     * Returns the index of the first dependent edge of the given node. Dependents are ordered
+     * topologically and run up to {@link #getDependentsEnd(int)}; use
+     * {@link #getDependent(int)} to read them.
+     */
+    int getDependentsStart(int node) {
+        return mDependentStart[node];
+    }
+
+    int getDependentsEnd(int node) {
+        return mDependentStart[node + 1];
+    }
+
+    int getDependent(int edge) {
+        return mDependents[edge];
+    }
+
+    int getDependentFlags(int edge) {
+        return mDependentFlags[edge];
+    }
+
+   /**
+     * Records that {@code onDependentViewChanged} was dispatched over the given dependent edge.
+     *
+     * @param handled the value the behavior returned
+     */
+    void recordDispatch(int edge, boolean handled) {
+        mDependentDispatchCounts[edge]++;
+        if (handled) {
+            mDependentHandledCounts[edge]++;
+        }
+    }
+
+   /**
+     * Returns the dependent edge from {@code node} to {@code dependent}, or -1 if there is none.
+     */
+    int findDependentEdge(int node, int dependent) {
+        if (node < 0 || node >= mNodeCount) {
+            return -1;
+        }
+        for (int e = mDependentStart[node], end = mDependentStart[node + 1]; e < end; e++) {
+            if (mDependents[e] == dependent) {
+                return e;
+            }
+        }
+        return -1;
+    }
+
+    int getDispatchCount(int edge) {
+        return mDependentDispatchCounts[edge];
+    }
+
+    int getHandledCount(int edge) {
+        return mDependentHandledCounts[edge];
+    }
+
+    void resetDispatchCounts() {
+        for (int e = 0; e < mEdgeCount; e++) {
+            mDependentDispatchCounts[e] = 0;
+            mDependentHandledCounts[e] = 0;
+        }
+    }
+
+    boolean hasDependencies(int node) {
+        return mDependencyStart[node + 1] > mDependencyStart[node];
+    }
+
+    boolean hasDependents(int node) {
+        return mDependentStart[node + 1] > mDependentStart[node];
+    }
+
+   /**
+     * Marks the given node dirty, so that the next worklist pass visits it.
+     */
+    void markDirty(int node) {
+        set(mDirty, mSortedPositions[node]);
+    }
+
+   /**
+     * Marks every dependent of the given node dirty. Dependents always sort after the node, so
+     * a pass walking forward from the node's position will still visit them.
+     */
+    void markDependentsDirty(int node) {
+        for (int e = mDependentStart[node], end = mDependentStart[node + 1]; e < end; e++) {
+            set(mDirty, mSortedPositions[mDependents[e]]);
+        }
+    }
+
+   /**
+     * Marks the given node as one that every worklist pass visits, dirty or not.
+     */
+    void setAlwaysVisited(int node) {
+        set(mAlwaysVisited, mSortedPositions[node]);
+    }
+
+    boolean isDirtyPosition(int position) {
+        return isSet(mDirty, position);
+    }
+
+    boolean hasDirty() {
+        for (int i = 0, words = (mNodeCount + 63) >> 6; i < words; i++) {
+            if (mDirty[i] != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void clearDirty() {
+        for (int i = 0, words = (mNodeCount + 63) >> 6; i < words; i++) {
+            mDirty[i] = 0;
+        }
+    }
+
+   /**
+     * Returns the first sorted position at or after {@code from} which is dirty or always
+     * visited, or -1 if there is none.
+     */
+    int nextWorklistPosition(int from) {
+        if (from >= mNodeCount) {
+            return -1;
+        }
+        int word = from >> 6;
+        long bits = (mDirty[word] | mAlwaysVisited[word]) & (-1L << from);
+        final int words = (mNodeCount + 63) >> 6;
+        while (true) {
+            if (bits != 0) {
+                final int position = (word << 6) + Long.numberOfTrailingZeros(bits);
+                return position < mNodeCount ? position : -1;
+            }
+            if (++word == words) {
+                return -1;
+            }
+            bits = mDirty[word] | mAlwaysVisited[word];
+        }
+    }
+
+    private static boolean isSet(long[] bits, int index) {
+        return (bits[index >> 6] & (1L << index)) != 0;
+    }
+
+    private static void set(long[] bits, int index) {
+        bits[index >> 6] |= 1L << index;
+    }
+
+    private static void clear(long[] bits, int index) {
+        bits[index >> 6] &= ~(1L << index);
+    }
+}
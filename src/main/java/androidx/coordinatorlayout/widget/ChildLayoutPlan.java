@@ -0,0 +1,237 @@
+//start - license
+/*
+ * Copyright (c) 2025 Ashera Cordova
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+//end - license
+
+package androidx.coordinatorlayout.widget;
+
+import r.android.annotation.NonNull;
+import r.android.view.Gravity;
+import r.android.view.View;
+import androidx.core.view.GravityCompat;
+
+/**
+ * The per-child values which the measure, layout and dependency passes of a
+ * {@link CoordinatorLayout} derive from its {@link CoordinatorLayout.LayoutParams}, resolved
+ * once for a layout direction and stored as flat arrays in dependency order.
+ *
+ * <p>The plan is rebuilt together with the {@link ChildDependencyGraph}, i.e. whenever the
+ * children, their anchors, behaviors, gravities, keylines or inset edges change, or the layout
+ * direction flips. Gravities and inset edges are absolute, so none of the passes need to call
+ * {@link GravityCompat#getAbsoluteGravity(int, int)} again.</p>
+ */
+final class ChildLayoutPlan {
+    private int mSize;
+    private int mLayoutDirection = -1;
+    private boolean mHasInsetEdges;
+    private boolean mHasDodgeInsetEdges;
+
+    private View[] mChildren = new View[0];
+    private CoordinatorLayout.LayoutParams[] mParams = new CoordinatorLayout.LayoutParams[0];
+    private int[] mNodes = new int[0];
+    private int[] mGravity = new int[0];
+    private int[] mKeylineGravity = new int[0];
+    private int[] mAnchoredGravity = new int[0];
+    private int[] mAnchorGravity = new int[0];
+    private int[] mKeylinePosition = new int[0];
+    private int[] mInsetEdge = new int[0];
+    private int[] mDodgeInsetEdges = new int[0];
+    private int[] mAnchorPosition = new int[0];
+    private int[] mBehaviorFlags = new int[0];
+
+   /**
+     * Rebuilds the plan from the sorted children of {@code graph}. Keyline positions are reset
+     * to 0 and must be filled in by the caller through {@link #setKeylinePosition(int, int)}.
+     */
+    void build(ChildDependencyGraph graph, int layoutDirection) {
+        final int size = graph.size();
+        ensureCapacity(size);
+        for (int i = size; i < mSize; i++) {
+            mChildren[i] = null;
+            mParams[i] = null;
+        }
+        mSize = size;
+        mLayoutDirection = layoutDirection;
+        mHasInsetEdges = false;
+        mHasDodgeInsetEdges = false;
+
+        for (int i = 0; i < size; i++) {
+            final int node = graph.getSortedNode(i);
+            final View child = graph.getChild(node);
+            final CoordinatorLayout.LayoutParams lp =
+                    (CoordinatorLayout.LayoutParams) child.getLayoutParams();
+            mChildren[i] = child;
+            mParams[i] = lp;
+            mNodes[i] = node;
+            mGravity[i] = GravityCompat.getAbsoluteGravity(
+                    CoordinatorLayout.resolveGravity(lp.gravity), layoutDirection);
+            mKeylineGravity[i] = GravityCompat.getAbsoluteGravity(
+                    CoordinatorLayout.resolveKeylineGravity(lp.gravity), layoutDirection);
+            mAnchoredGravity[i] = GravityCompat.getAbsoluteGravity(
+                    CoordinatorLayout.resolveAnchoredChildGravity(lp.gravity), layoutDirection);
+            mAnchorGravity[i] = GravityCompat.getAbsoluteGravity(
+                    CoordinatorLayout.resolveGravity(lp.anchorGravity), layoutDirection);
+            mKeylinePosition[i] = 0;
+            mInsetEdge[i] = GravityCompat.getAbsoluteGravity(lp.insetEdge, layoutDirection);
+            mDodgeInsetEdges[i] =
+                    GravityCompat.getAbsoluteGravity(lp.dodgeInsetEdges, layoutDirection);
+            mAnchorPosition[i] = lp.mAnchorNode >= 0 ? graph.getSortedPosition(lp.mAnchorNode) : -1;
+            mBehaviorFlags[i] = lp.mBehaviorFlags;
+            mHasInsetEdges |= mInsetEdge[i] != Gravity.NO_GRAVITY;
+            mHasDodgeInsetEdges |= mDodgeInsetEdges[i] != Gravity.NO_GRAVITY;
+            lp.mLayoutPlanPosition = i;
+        }
+    }
+
+    private void ensureCapacity(int size) {
+        if (mChildren.length < size) {
+            mChildren = new View[size];
+            mParams = new CoordinatorLayout.LayoutParams[size];
+            mNodes = new int[size];
+            mGravity = new int[size];
+            mKeylineGravity = new int[size];
+            mAnchoredGravity = new int[size];
+            mAnchorGravity = new int[size];
+            mKeylinePosition = new int[size];
+            mInsetEdge = new int[size];
+            mDodgeInsetEdges = new int[size];
+            mAnchorPosition = new int[size];
+            mBehaviorFlags = new int[size];
+        }
+    }
+
+   /**
+     * Returns the number of children in the plan.
+     */
+    int size() {
+        return mSize;
+    }
+
+   /**
+     * Returns the layout direction the plan was resolved for.
+     */
+    int getLayoutDirection() {
+        return mLayoutDirection;
+    }
+
+   /**
+     * Returns the position of {@code child} in the plan, or -1 if the child is not part of it
+     * or the plan was resolved for a different layout direction.
+     */
+    int indexOf(@NonNull View child, int layoutDirection) {
+        if (layoutDirection != mLayoutDirection) {
+            return -1;
+        }
+        final int position = ((CoordinatorLayout.LayoutParams) child.getLayoutParams())
+                .mLayoutPlanPosition;
+        return position >= 0 && position < mSize && mChildren[position] == child ? position : -1;
+    }
+
+    View getChild(int position) {
+        return mChildren[position];
+    }
+
+    CoordinatorLayout.LayoutParams getLayoutParams(int position) {
+        return mParams[position];
+    }
+
+   /**
+     * Returns the {@link ChildDependencyGraph} node of the child at {@code position}.
+     */
+    int getNode(int position) {
+        return mNodes[position];
+    }
+
+   /**
+     * Returns the absolute gravity used to lay out a child which has neither an anchor nor a
+     * keyline.
+     */
+    int getGravity(int position) {
+        return mGravity[position];
+    }
+
+   /**
+     * Returns the absolute gravity used to position a child relative to its keyline.
+     */
+    int getKeylineGravity(int position) {
+        return mKeylineGravity[position];
+    }
+
+   /**
+     * Returns the absolute gravity used to position an anchored child relative to its anchor
+     * point.
+     */
+    int getAnchoredGravity(int position) {
+        return mAnchoredGravity[position];
+    }
+
+   /**
+     * Returns the absolute gravity of the anchor point on the anchor view.
+     */
+    int getAnchorGravity(int position) {
+        return mAnchorGravity[position];
+    }
+
+    int getKeylinePosition(int position) {
+        return mKeylinePosition[position];
+    }
+
+    void setKeylinePosition(int position, int keylinePosition) {
+        mKeylinePosition[position] = keylinePosition;
+    }
+
+   /**
+     * Returns the absolute inset edge of the child at {@code position}.
+     */
+    int getInsetEdge(int position) {
+        return mInsetEdge[position];
+    }
+
+   /**
+     * Returns the absolute inset edges which the child at {@code position} dodges.
+     */
+    int getDodgeInsetEdges(int position) {
+        return mDodgeInsetEdges[position];
+    }
+
+   /**
+     * Returns the position of the direct child which the child at {@code position} is anchored
+     * to, or -1 if it has no anchor.
+     */
+    int getAnchorPosition(int position) {
+        return mAnchorPosition[position];
+    }
+
+   /**
+     * Returns the {@link CoordinatorLayout.Behavior} callback flags of the child at
+     * {@code position}.
+     */
+    int getBehaviorFlags(int position) {
+        return mBehaviorFlags[position];
+    }
+
+   /**
+     * Returns true if any child of the plan declares an inset edge.
+     */
+    boolean hasInsetEdges() {
+        return mHasInsetEdges;
+    }
+
+   /**
+     * Returns true if any child of the plan dodges inset edges.
+     */
+    boolean hasDodgeInsetEdges() {
+        return mHasDodgeInsetEdges;
+    }
+}
@@ -32,17 +32,18 @@ package androidx.coordinatorlayout.widget;
 import r.android.graphics.Rect;
 import r.android.graphics.drawable.Drawable;
 import r.android.util.Log;
+import r.android.util.SparseArray;
 import r.android.view.Gravity;
 import r.android.view.View;
 import r.android.view.ViewGroup;
 import r.android.view.ViewParent;
-import r.android.util.Pools;
 import androidx.core.view.GravityCompat;
 import androidx.core.view.NestedScrollingParent2;
 import androidx.core.view.NestedScrollingParent3;
 import androidx.core.view.NestedScrollingParentHelper;
 import androidx.core.view.ViewCompat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -55,20 +56,87 @@ public class CoordinatorLayout extends ViewGroup implements NestedScrollingParen
   static final int EVENT_PRE_DRAW=0;
   static final int EVENT_NESTED_SCROLL=1;
   static final int EVENT_VIEW_REMOVED=2;
-  private static final Pools.Pool<Rect> sRectPool=new Pools.SynchronizedPool<>(12);
-  private static Rect acquireTempRect(){
-    Rect rect=sRectPool.acquire();
-    if (rect == null) {
-      rect=new Rect();
+  private Rect[] mTempRects=new Rect[6];
+  private int mTempRectCount;
+  private long mTempRectHitCount;
+  private long mTempRectMissCount;
+  private Rect acquireTempRect(){
+    if (mTempRectCount > 0) {
+      mTempRectCount--;
+      Rect rect=mTempRects[mTempRectCount];
+      mTempRects[mTempRectCount]=null;
+      mTempRectHitCount++;
+      return rect;
     }
-    return rect;
+    mTempRectMissCount++;
+    return new Rect();
   }
-  private static void releaseTempRect(  Rect rect){
+  private void releaseTempRect(  Rect rect){
     rect.setEmpty();
-    sRectPool.release(rect);
+    if (mTempRectCount == mTempRects.length) {
+      mTempRects=Arrays.copyOf(mTempRects,mTempRectCount * 2);
+    }
+    mTempRects[mTempRectCount++]=rect;
+  }
+  public long getTempRectPoolHitCount(){
+    return mTempRectHitCount;
+  }
+  public long getTempRectPoolMissCount(){
+    return mTempRectMissCount;
+  }
+  public void resetTempRectPoolCounters(){
+    mTempRectHitCount=0;
+    mTempRectMissCount=0;
   }
   private final List<View> mDependencySortedChildren=new ArrayList<>();
-  private final DirectedAcyclicGraph<View> mChildDag=new DirectedAcyclicGraph<>();
+  private final ChildDependencyGraph mChildDag=new ChildDependencyGraph();
+  private final ChildLayoutPlan mLayoutPlan=new ChildLayoutPlan();
+  private boolean mChildDagDirty=true;
+  private int mChildDagLayoutDirection;
+  private boolean mDependencyWorklistEnabled;
+  private boolean mMeasureCacheEnabled=true;
+  private int mDependencyPass;
+  private Rect[] mAnchorRects=new Rect[0];
+  private View[] mAnchorRectViews=new View[0];
+  private int[] mAnchorRectPasses=new int[0];
+  private View[] mNestedScrollParticipants=new View[0];
+  private int mNestedScrollParticipantCount;
+  private View[] mAcceptedTouchChildren=new View[0];
+  private int mAcceptedTouchChildCount;
+  private View[] mAcceptedNonTouchChildren=new View[0];
+  private int mAcceptedNonTouchChildCount;
+  private boolean mBehaviorParticipantsDirty=true;
+  private boolean mNestedScrollPassCoalescingEnabled;
+  private boolean mNestedScrollPassPending;
+  private NestedScrollTrace.Recorder mNestedScrollTraceRecorder;
+  private BehaviorProfiler mBehaviorProfiler;
+  private LayoutTraceListener mLayoutTraceListener;
+  private int mTracedNestedScrollTypes;
+  private LayoutPassMetrics.Listener mPassMetricsListener;
+  private LayoutPassMetrics mPassMetrics;
+  int mBehaviorCallbackCount;
+  private int mPassChildrenVisited;
+  private int mPassChildrenSkipped;
+  private boolean mPreDrawPassDirty;
+  private boolean mFrameCallbackPosted;
+  private final Runnable mFrameCallback=new Runnable(){
+    public void run(){
+      flushNestedScrollPass();
+      if (mNeedsPreDrawListener && mIsAttachedToWindow) {
+        if (mPreDrawPassDirty) {
+          onChildViewsChanged(EVENT_PRE_DRAW);
+        }
+ else         if (mDependencyWorklistEnabled && mChildDag.hasDirty()) {
+          onChildViewsChanged(EVENT_PRE_DRAW,true);
+        }
+      }
+      mFrameCallbackPosted=false;
+      if (mNestedScrollPassPending) {
+        scheduleFrameCallback();
+      }
+    }
+  }
+;
   private final int[] mBehaviorConsumed=new int[2];
   private final int[] mNestedScrollingV2ConsumedCompat=new int[2];
   private boolean mDisallowInterceptReset;
@@ -77,8 +145,69 @@ public class CoordinatorLayout extends ViewGroup implements NestedScrollingParen
   private View mNestedScrollingTarget;
   private boolean mNeedsPreDrawListener;
   private WindowInsetsCompat mLastInsets;
+  private final SparseArray<View> mAnchorIndex=new SparseArray<>();
+  private final SparseArray<View> mAnchorIndexDirectChild=new SparseArray<>();
+  private boolean mAnchorIndexDirty=true;
+  private int mAnchorIndexPass=-1;
+  private int mLayoutInputsStamp=1;
+  private int mLastLayoutWidth=-1;
+  private int mLastLayoutHeight=-1;
+  private int mLastLayoutPaddingLeft;
+  private int mLastLayoutPaddingTop;
+  private int mLastLayoutPaddingRight;
+  private int mLastLayoutPaddingBottom;
+  private int mLastLayoutDirection;
+  private boolean mLastLayoutFitsSystemWindows;
+  private WindowInsetsCompat mLastLayoutInsets;
+  private int[] mLastLayoutKeylines;
   private boolean mDrawStatusBarBackground;
   private final NestedScrollingParentHelper mNestedScrollingParentHelper=new NestedScrollingParentHelper(this);
+  public final WindowInsetsCompat getLastWindowInsets(){
+    return mLastInsets;
+  }
+  public final WindowInsetsCompat setWindowInsets(  WindowInsetsCompat insets){
+    if (insets == null ? mLastInsets == null : insets.equals(mLastInsets)) {
+      return insets;
+    }
+    mLastInsets=insets;
+    mDrawStatusBarBackground=insets != null && insets.getSystemWindowInsetTop() > 0;
+    insets=dispatchApplyWindowInsetsToBehaviors(insets);
+    if (ViewCompat.getFitsSystemWindows(this)) {
+      requestLayout();
+    }
+    return insets;
+  }
+  private WindowInsetsCompat dispatchApplyWindowInsetsToBehaviors(  WindowInsetsCompat insets){
+    if (insets == null || insets.isConsumed()) {
+      return insets;
+    }
+    for (int i=0, z=getChildCount(); i < z; i++) {
+      final View child=getChildAt(i);
+      if (ViewCompat.getFitsSystemWindows(child)) {
+        final LayoutParams lp=(LayoutParams)child.getLayoutParams();
+        final Behavior b=lp.getDispatchBehavior();
+        if (b != null) {
+          mBehaviorCallbackCount++;
+          final WindowInsetsCompat result=b.onApplyWindowInsets(this,child,insets);
+          if (result == null) {
+            insets=insets.consumeSystemWindowInsets();
+            break;
+          }
+          insets=result;
+          if (insets.isConsumed()) {
+            break;
+          }
+        }
+      }
+    }
+    return insets;
+  }
+  public final void setWindowInsets(  int left,  int top,  int right,  int bottom){
+    if (mLastInsets != null && mLastInsets.equals(left,top,right,bottom)) {
+      return;
+    }
+    setWindowInsets(new WindowInsetsCompat(left,top,right,bottom));
+  }
   private int getKeyline(  int index){
     if (mKeylines == null) {
       Log.e(TAG,"No keylines defined for " + this + " - attempted index lookup "+ index);
@@ -90,29 +219,209 @@ public class CoordinatorLayout extends ViewGroup implements NestedScrollingParen
     }
     return mKeylines[index];
   }
-  private void prepareChildren(){
+  void prepareChildren(){
+    final LayoutPassMetrics.Listener metricsListener=mPassMetricsListener;
+    final long metricsStart=metricsListener != null ? System.nanoTime() : 0;
+    final int callbacksStart=mBehaviorCallbackCount;
+    final long rectMissesStart=mTempRectMissCount;
+    final LayoutTraceListener traceListener=mLayoutTraceListener;
+    if (traceListener != null) {
+      traceListener.onPassBegin(this,LayoutPassMetrics.PASS_PREPARE_CHILDREN);
+    }
     mDependencySortedChildren.clear();
-    mChildDag.clear();
-    for (int i=0, count=getChildCount(); i < count; i++) {
+    final int count=getChildCount();
+    mChildDag.beginBuild(count);
+    for (int i=0; i < count; i++) {
       final View view=getChildAt(i);
       final LayoutParams lp=getResolvedLayoutParams(view);
       lp.findAnchorView(this,view);
-      mChildDag.addNode(view);
+      lp.mDependencyNode=i;
+      mChildDag.addNode(i,view);
       for (int j=0; j < count; j++) {
         if (j == i) {
           continue;
         }
         final View other=getChildAt(j);
-        if (lp.dependsOn(this,view,other)) {
-          if (!mChildDag.contains(other)) {
-            mChildDag.addNode(other);
-          }
-          mChildDag.addEdge(other,view);
+        final int flags=lp.getDependencyFlags(this,view,other);
+        if (flags != 0) {
+          mChildDag.addDependency(i,j,flags);
+        }
+      }
+    }
+    mChildDag.endBuild();
+    ensureAnchorRectCapacity(count);
+    Arrays.fill(mAnchorRectViews,null);
+    int anchorRectCount=0;
+    for (int i=0; i < count; i++) {
+      final int node=mChildDag.getSortedNode(i);
+      final View child=mChildDag.getChild(node);
+      final LayoutParams lp=(LayoutParams)child.getLayoutParams();
+      mDependencySortedChildren.add(child);
+      lp.mAnchorNode=lp.mAnchorDirectChild != null && lp.mAnchorDirectChild != child ? ((LayoutParams)lp.mAnchorDirectChild.getLayoutParams()).mDependencyNode : -1;
+      lp.mAnchorRectSlot=-1;
+      if (lp.mAnchorNode >= 0) {
+        lp.mAnchorRectSlot=findAnchorRectSlot(lp.mAnchorView,i);
+        if (lp.mAnchorRectSlot < 0) {
+          lp.mAnchorRectSlot=anchorRectCount++;
         }
       }
+      lp.onDependenciesPrepared();
+      if (lp.insetEdge != Gravity.NO_GRAVITY) {
+        mChildDag.setAlwaysVisited(node);
+      }
+    }
+    mChildDagLayoutDirection=ViewCompat.getLayoutDirection(this);
+    mChildDagDirty=false;
+    mLayoutPlan.build(mChildDag,mChildDagLayoutDirection);
+    updateLayoutPlanKeylines();
+    if (metricsListener != null) {
+      reportPassMetrics(metricsListener,LayoutPassMetrics.PASS_PREPARE_CHILDREN,metricsStart,count,callbacksStart,count,0,rectMissesStart);
+    }
+    if (traceListener != null) {
+      traceListener.onPassEnd(this,LayoutPassMetrics.PASS_PREPARE_CHILDREN,count);
+    }
+  }
+  private void reportPassMetrics(  LayoutPassMetrics.Listener listener,  int pass,  long startNanos,  int childCount,  int callbacksStart,  int visited,  int skipped,  long rectMissesStart){
+    final long duration=System.nanoTime() - startNanos;
+    if (mPassMetrics == null) {
+      mPassMetrics=new LayoutPassMetrics();
+    }
+    mPassMetrics.set(pass,duration,childCount,mBehaviorCallbackCount - callbacksStart,visited,skipped,(int)(mTempRectMissCount - rectMissesStart));
+    listener.onPassMetrics(this,mPassMetrics);
+  }
+  public void setPassMetricsListener(  LayoutPassMetrics.Listener listener){
+    mPassMetricsListener=listener;
+  }
+  public LayoutPassMetrics.Listener getPassMetricsListener(){
+    return mPassMetricsListener;
+  }
+  private void updateLayoutPlanKeylines(){
+    for (int i=0, count=mLayoutPlan.size(); i < count; i++) {
+      final LayoutParams lp=mLayoutPlan.getLayoutParams(i);
+      if (lp.keyline >= 0) {
+        mLayoutPlan.setKeylinePosition(i,getKeyline(lp.keyline));
+      }
+    }
+  }
+  private void ensureAnchorRectCapacity(  int count){
+    if (mAnchorRects.length < count) {
+      mAnchorRects=Arrays.copyOf(mAnchorRects,count);
+      mAnchorRectViews=new View[count];
+      mAnchorRectPasses=new int[count];
+    }
+  }
+  private int findAnchorRectSlot(  View anchor,  int sortedCount){
+    for (int i=0; i < sortedCount; i++) {
+      final LayoutParams lp=(LayoutParams)mDependencySortedChildren.get(i).getLayoutParams();
+      if (lp.mAnchorRectSlot >= 0 && lp.mAnchorView == anchor) {
+        return lp.mAnchorRectSlot;
+      }
+    }
+    return -1;
+  }
+  private Rect getAnchorRect(  LayoutParams lp){
+    final int slot=lp.mAnchorRectSlot;
+    Rect rect=mAnchorRects[slot];
+    if (rect == null) {
+      rect=new Rect();
+      mAnchorRects[slot]=rect;
+    }
+ else     if (mAnchorRectPasses[slot] == mDependencyPass && mAnchorRectViews[slot] == lp.mAnchorView) {
+      return rect;
     }
-    mDependencySortedChildren.addAll(mChildDag.getSortedList());
-    Collections.reverse(mDependencySortedChildren);
+    getDescendantRect(lp.mAnchorView,rect);
+    mAnchorRectPasses[slot]=mDependencyPass;
+    mAnchorRectViews[slot]=lp.mAnchorView;
+    return rect;
+  }
+  private boolean haveChildDependenciesChanged(){
+    if (mChildDagDirty || mDependencySortedChildren.size() != getChildCount() || mChildDagLayoutDirection != ViewCompat.getLayoutDirection(this)) {
+      return true;
+    }
+    for (int i=0, count=getChildCount(); i < count; i++) {
+      final View view=getChildAt(i);
+      final LayoutParams lp=getResolvedLayoutParams(view);
+      lp.findAnchorView(this,view);
+      if (lp.haveDependenciesChanged()) {
+        return true;
+      }
+    }
+    return false;
+  }
+  public void invalidateDependencies(){
+    mChildDagDirty=true;
+    mAnchorIndexDirty=true;
+    requestLayout();
+  }
+  View findIndexedAnchorView(  int id){
+    ensureAnchorIndex();
+    View view=mAnchorIndex.get(id);
+    if (view == null ? mAnchorIndexPass != mDependencyPass : !isIndexedAnchorCurrent(id,view)) {
+      mAnchorIndexDirty=true;
+      ensureAnchorIndex();
+      view=mAnchorIndex.get(id);
+    }
+    return view;
+  }
+  private boolean isIndexedAnchorCurrent(  int id,  View view){
+    if (view.getId() != id) {
+      return false;
+    }
+    View directChild=view;
+    for (ViewParent p=view.getParent(); p != this; p=p.getParent()) {
+      if (!(p instanceof View)) {
+        return false;
+      }
+      directChild=(View)p;
+    }
+    return directChild == mAnchorIndexDirectChild.get(id);
+  }
+  View getIndexedAnchorDirectChild(  int id){
+    return mAnchorIndexDirectChild.get(id);
+  }
+  private void ensureAnchorIndex(){
+    if (!mAnchorIndexDirty) {
+      return;
+    }
+    mAnchorIndex.clear();
+    mAnchorIndexDirectChild.clear();
+    for (int i=0, count=getChildCount(); i < count; i++) {
+      final View child=getChildAt(i);
+      indexAnchorDescendants(child,child);
+    }
+    mAnchorIndexDirty=false;
+    mAnchorIndexPass=mDependencyPass;
+  }
+  private void indexAnchorDescendants(  View view,  View directChild){
+    final int id=view.getId();
+    if (id != View.NO_ID && mAnchorIndex.indexOfKey(id) < 0) {
+      mAnchorIndex.put(id,view);
+      mAnchorIndexDirectChild.put(id,directChild);
+    }
+    if (view instanceof ViewGroup) {
+      final ViewGroup group=(ViewGroup)view;
+      for (int i=0, count=group.getChildCount(); i < count; i++) {
+        indexAnchorDescendants(group.getChildAt(i),directChild);
+      }
+    }
+  }
+  public void onViewAdded(  View child){
+    super.onViewAdded(child);
+    mChildDagDirty=true;
+    mAnchorIndexDirty=true;
+    mBehaviorParticipantsDirty=true;
+    if (child.getLayoutParams() instanceof LayoutParams) {
+      ((LayoutParams)child.getLayoutParams()).invalidateMeasureCache();
+      ((LayoutParams)child.getLayoutParams()).invalidateLayoutCache();
+    }
+  }
+  public void onViewRemoved(  View child){
+    super.onViewRemoved(child);
+    mChildDagDirty=true;
+    mAnchorIndexDirty=true;
+    mBehaviorParticipantsDirty=true;
+    removeAcceptedChild(child);
+    invalidatePreDrawPass();
   }
   void getDescendantRect(  View descendant,  Rect out){
     ViewGroupUtils.getDescendantRect(this,descendant,out);
@@ -121,8 +430,20 @@ public class CoordinatorLayout extends ViewGroup implements NestedScrollingParen
     measureChildWithMargins(child,parentWidthMeasureSpec,widthUsed,parentHeightMeasureSpec,heightUsed);
   }
   protected void onMeasure(  int widthMeasureSpec,  int heightMeasureSpec){
-    prepareChildren();
-    ensurePreDrawListener();
+    if (haveChildDependenciesChanged()) {
+      prepareChildren();
+      ensurePreDrawListener();
+    }
+    final LayoutPassMetrics.Listener metricsListener=mPassMetricsListener;
+    final long metricsStart=metricsListener != null ? System.nanoTime() : 0;
+    final int callbacksStart=mBehaviorCallbackCount;
+    final int visitedStart=mPassChildrenVisited;
+    final int skippedStart=mPassChildrenSkipped;
+    final long rectMissesStart=mTempRectMissCount;
+    final LayoutTraceListener traceListener=mLayoutTraceListener;
+    if (traceListener != null) {
+      traceListener.onPassBegin(this,LayoutPassMetrics.PASS_MEASURE);
+    }
     final int paddingLeft=getPaddingLeft();
     final int paddingTop=getPaddingTop();
     final int paddingRight=getPaddingRight();
@@ -139,17 +460,25 @@ public class CoordinatorLayout extends ViewGroup implements NestedScrollingParen
     int heightUsed=getSuggestedMinimumHeight();
     int childState=0;
     final boolean applyInsets=mLastInsets != null && ViewCompat.getFitsSystemWindows(this);
-    final int childCount=mDependencySortedChildren.size();
+    int insetWidthMeasureSpec=widthMeasureSpec;
+    int insetHeightMeasureSpec=heightMeasureSpec;
+    if (applyInsets) {
+      final int horizInsets=mLastInsets.getSystemWindowInsetLeft() + mLastInsets.getSystemWindowInsetRight();
+      final int vertInsets=mLastInsets.getSystemWindowInsetTop() + mLastInsets.getSystemWindowInsetBottom();
+      insetWidthMeasureSpec=MeasureSpec.makeMeasureSpec(widthSize - horizInsets,widthMode);
+      insetHeightMeasureSpec=MeasureSpec.makeMeasureSpec(heightSize - vertInsets,heightMode);
+    }
+    final int childCount=mLayoutPlan.size();
     for (int i=0; i < childCount; i++) {
-      final View child=mDependencySortedChildren.get(i);
+      final View child=mLayoutPlan.getChild(i);
       if (child.getVisibility() == GONE) {
         continue;
       }
-      final LayoutParams lp=(LayoutParams)child.getLayoutParams();
+      final LayoutParams lp=mLayoutPlan.getLayoutParams(i);
       int keylineWidthUsed=0;
       if (lp.keyline >= 0 && widthMode != MeasureSpec.UNSPECIFIED) {
-        final int keylinePos=getKeyline(lp.keyline);
-        final int keylineGravity=GravityCompat.getAbsoluteGravity(resolveKeylineGravity(lp.gravity),layoutDirection) & Gravity.HORIZONTAL_GRAVITY_MASK;
+        final int keylinePos=mLayoutPlan.getKeylinePosition(i);
+        final int keylineGravity=mLayoutPlan.getKeylineGravity(i) & Gravity.HORIZONTAL_GRAVITY_MASK;
         if ((keylineGravity == Gravity.LEFT && !isRtl) || (keylineGravity == Gravity.RIGHT && isRtl)) {
           keylineWidthUsed=Math.max(0,widthSize - paddingRight - keylinePos);
         }
@@ -160,14 +489,26 @@ public class CoordinatorLayout extends ViewGroup implements NestedScrollingParen
       int childWidthMeasureSpec=widthMeasureSpec;
       int childHeightMeasureSpec=heightMeasureSpec;
       if (applyInsets && !ViewCompat.getFitsSystemWindows(child)) {
-        final int horizInsets=mLastInsets.getSystemWindowInsetLeft() + mLastInsets.getSystemWindowInsetRight();
-        final int vertInsets=mLastInsets.getSystemWindowInsetTop() + mLastInsets.getSystemWindowInsetBottom();
-        childWidthMeasureSpec=MeasureSpec.makeMeasureSpec(widthSize - horizInsets,widthMode);
-        childHeightMeasureSpec=MeasureSpec.makeMeasureSpec(heightSize - vertInsets,heightMode);
+        childWidthMeasureSpec=insetWidthMeasureSpec;
+        childHeightMeasureSpec=insetHeightMeasureSpec;
       }
-      final Behavior b=lp.getBehavior();
-      if (b == null || !b.onMeasureChild(this,child,childWidthMeasureSpec,keylineWidthUsed,childHeightMeasureSpec,0)) {
-        onMeasureChild(child,childWidthMeasureSpec,keylineWidthUsed,childHeightMeasureSpec,0);
+      final Behavior b=lp.getDispatchBehavior();
+      final boolean behaviorMeasures=(mLayoutPlan.getBehaviorFlags(i) & Behavior.CALLBACK_MEASURE) != 0;
+      if (!mMeasureCacheEnabled || child.isLayoutRequested() || !lp.isMeasureCached(childWidthMeasureSpec,keylineWidthUsed,childHeightMeasureSpec) || (behaviorMeasures && !b.canSkipMeasure(this,child))) {
+        boolean measured=false;
+        if (behaviorMeasures) {
+          mBehaviorCallbackCount++;
+          measured=b.onMeasureChild(this,child,childWidthMeasureSpec,keylineWidthUsed,childHeightMeasureSpec,0);
+        }
+        if (!measured) {
+          onMeasureChild(child,childWidthMeasureSpec,keylineWidthUsed,childHeightMeasureSpec,0);
+        }
+        lp.setMeasureCache(childWidthMeasureSpec,keylineWidthUsed,childHeightMeasureSpec);
+        lp.invalidateLayoutCache();
+        mPassChildrenVisited++;
+      }
+ else {
+        mPassChildrenSkipped++;
       }
       widthUsed=Math.max(widthUsed,widthPadding + child.getMeasuredWidth() + lp.leftMargin+ lp.rightMargin);
       heightUsed=Math.max(heightUsed,heightPadding + child.getMeasuredHeight() + lp.topMargin+ lp.bottomMargin);
@@ -176,6 +517,12 @@ public class CoordinatorLayout extends ViewGroup implements NestedScrollingParen
     final int width=View.resolveSizeAndState(widthUsed,widthMeasureSpec,childState & View.MEASURED_STATE_MASK);
     final int height=View.resolveSizeAndState(heightUsed,heightMeasureSpec,childState << View.MEASURED_HEIGHT_STATE_SHIFT);
     setMeasuredDimension(width,height);
+    if (metricsListener != null) {
+      reportPassMetrics(metricsListener,LayoutPassMetrics.PASS_MEASURE,metricsStart,childCount,callbacksStart,mPassChildrenVisited - visitedStart,mPassChildrenSkipped - skippedStart,rectMissesStart);
+    }
+    if (traceListener != null) {
+      traceListener.onPassEnd(this,LayoutPassMetrics.PASS_MEASURE,childCount);
+    }
   }
   public void onLayoutChild(  View child,  int layoutDirection){
     final LayoutParams lp=(LayoutParams)child.getLayoutParams();
@@ -194,19 +541,79 @@ public class CoordinatorLayout extends ViewGroup implements NestedScrollingParen
   }
   protected void onLayout(  boolean changed,  int l,  int t,  int r,  int b){
     final int layoutDirection=ViewCompat.getLayoutDirection(this);
-    final int childCount=mDependencySortedChildren.size();
+    updateLayoutInputsStamp(layoutDirection);
+    final LayoutPassMetrics.Listener metricsListener=mPassMetricsListener;
+    final long metricsStart=metricsListener != null ? System.nanoTime() : 0;
+    final int callbacksStart=mBehaviorCallbackCount;
+    final int visitedStart=mPassChildrenVisited;
+    final int skippedStart=mPassChildrenSkipped;
+    final long rectMissesStart=mTempRectMissCount;
+    final LayoutTraceListener traceListener=mLayoutTraceListener;
+    if (traceListener != null) {
+      traceListener.onPassBegin(this,LayoutPassMetrics.PASS_LAYOUT);
+    }
+    final int childCount=mLayoutPlan.size();
     for (int i=0; i < childCount; i++) {
-      final View child=mDependencySortedChildren.get(i);
+      final View child=mLayoutPlan.getChild(i);
       if (child.getVisibility() == GONE) {
         continue;
       }
-      final LayoutParams lp=(LayoutParams)child.getLayoutParams();
-      final Behavior behavior=lp.getBehavior();
-      if (behavior == null || !behavior.onLayoutChild(this,child,layoutDirection)) {
+      final LayoutParams lp=mLayoutPlan.getLayoutParams(i);
+      final Behavior behavior=lp.getDispatchBehavior();
+      if ((mLayoutPlan.getBehaviorFlags(i) & Behavior.CALLBACK_LAYOUT) != 0) {
+        mBehaviorCallbackCount++;
+        mPassChildrenVisited++;
+        if (!behavior.onLayoutChild(this,child,layoutDirection)) {
+          onLayoutChild(child,layoutDirection);
+        }
+        continue;
+      }
+      final Rect anchorRect=acquireTempRect();
+      if (lp.mAnchorView != null) {
+        getDescendantRect(lp.mAnchorView,anchorRect);
+      }
+      if (!isChildLayoutCached(child,lp,anchorRect)) {
         onLayoutChild(child,layoutDirection);
+        lp.setLayoutCache(mLayoutInputsStamp,child,anchorRect);
+        mPassChildrenVisited++;
       }
+ else {
+        mPassChildrenSkipped++;
+      }
+      releaseTempRect(anchorRect);
+    }
+    invalidatePreDrawPass();
+    if (metricsListener != null) {
+      reportPassMetrics(metricsListener,LayoutPassMetrics.PASS_LAYOUT,metricsStart,childCount,callbacksStart,mPassChildrenVisited - visitedStart,mPassChildrenSkipped - skippedStart,rectMissesStart);
+    }
+    if (traceListener != null) {
+      traceListener.onPassEnd(this,LayoutPassMetrics.PASS_LAYOUT,childCount);
+    }
+  }
+  private void updateLayoutInputsStamp(  int layoutDirection){
+    final int width=getWidth();
+    final int height=getHeight();
+    final boolean fitsSystemWindows=ViewCompat.getFitsSystemWindows(this);
+    if (width != mLastLayoutWidth || height != mLastLayoutHeight || getPaddingLeft() != mLastLayoutPaddingLeft || getPaddingTop() != mLastLayoutPaddingTop || getPaddingRight() != mLastLayoutPaddingRight || getPaddingBottom() != mLastLayoutPaddingBottom || layoutDirection != mLastLayoutDirection || fitsSystemWindows != mLastLayoutFitsSystemWindows || mLastInsets != mLastLayoutInsets || mKeylines != mLastLayoutKeylines) {
+      mLayoutInputsStamp++;
+      mLastLayoutWidth=width;
+      mLastLayoutHeight=height;
+      mLastLayoutPaddingLeft=getPaddingLeft();
+      mLastLayoutPaddingTop=getPaddingTop();
+      mLastLayoutPaddingRight=getPaddingRight();
+      mLastLayoutPaddingBottom=getPaddingBottom();
+      mLastLayoutDirection=layoutDirection;
+      mLastLayoutFitsSystemWindows=fitsSystemWindows;
+      mLastLayoutInsets=mLastInsets;
+      mLastLayoutKeylines=mKeylines;
     }
   }
+  private boolean isChildLayoutCached(  View child,  LayoutParams lp,  Rect anchorRect){
+    if (child.isLayoutRequested() || lp.checkAnchorChanged() || !lp.isLayoutCached(mLayoutInputsStamp,child,anchorRect)) {
+      return false;
+    }
+    return child.getLeft() == lp.mLaidOutFrame.left && child.getTop() == lp.mLaidOutFrame.top && child.getRight() == lp.mLaidOutFrame.right && child.getBottom() == lp.mLaidOutFrame.bottom;
+  }
   void recordLastChildRect(  View child,  Rect r){
     final LayoutParams lp=(LayoutParams)child.getLayoutParams();
     lp.setLastChildRect(r);
@@ -227,9 +634,10 @@ public class CoordinatorLayout extends ViewGroup implements NestedScrollingParen
       out.set(child.getLeft(),child.getTop(),child.getRight(),child.getBottom());
     }
   }
-  private void getDesiredAnchoredChildRectWithoutConstraints(  int layoutDirection,  Rect anchorRect,  Rect out,  LayoutParams lp,  int childWidth,  int childHeight){
-    final int absGravity=GravityCompat.getAbsoluteGravity(resolveAnchoredChildGravity(lp.gravity),layoutDirection);
-    final int absAnchorGravity=GravityCompat.getAbsoluteGravity(resolveGravity(lp.anchorGravity),layoutDirection);
+  private void getDesiredAnchoredChildRectWithoutConstraints(  int layoutDirection,  Rect anchorRect,  Rect out,  View child,  LayoutParams lp,  int childWidth,  int childHeight){
+    final int position=mLayoutPlan.indexOf(child,layoutDirection);
+    final int absGravity=position >= 0 ? mLayoutPlan.getAnchoredGravity(position) : GravityCompat.getAbsoluteGravity(resolveAnchoredChildGravity(lp.gravity),layoutDirection);
+    final int absAnchorGravity=position >= 0 ? mLayoutPlan.getAnchorGravity(position) : GravityCompat.getAbsoluteGravity(resolveGravity(lp.anchorGravity),layoutDirection);
     final int hgrav=absGravity & Gravity.HORIZONTAL_GRAVITY_MASK;
     final int vgrav=absGravity & Gravity.VERTICAL_GRAVITY_MASK;
     final int anchorHgrav=absAnchorGravity & Gravity.HORIZONTAL_GRAVITY_MASK;
@@ -295,7 +703,7 @@ void getDesiredAnchoredChildRect(View child,int layoutDirection,Rect anchorRect,
 final LayoutParams lp=(LayoutParams)child.getLayoutParams();
 final int childWidth=child.getMeasuredWidth();
 final int childHeight=child.getMeasuredHeight();
-getDesiredAnchoredChildRectWithoutConstraints(layoutDirection,anchorRect,out,lp,childWidth,childHeight);
+getDesiredAnchoredChildRectWithoutConstraints(layoutDirection,anchorRect,out,child,lp,childWidth,childHeight);
 constrainChildRect(lp,out,childWidth,childHeight);
 }
 private void layoutChildWithAnchor(View child,View anchor,int layoutDirection){
@@ -313,7 +721,8 @@ releaseTempRect(childRect);
 }
 private void layoutChildWithKeyline(View child,int keyline,int layoutDirection){
 final LayoutParams lp=(LayoutParams)child.getLayoutParams();
-final int absGravity=GravityCompat.getAbsoluteGravity(resolveKeylineGravity(lp.gravity),layoutDirection);
+final int position=mLayoutPlan.indexOf(child,layoutDirection);
+final int absGravity=position >= 0 ? mLayoutPlan.getKeylineGravity(position) : GravityCompat.getAbsoluteGravity(resolveKeylineGravity(lp.gravity),layoutDirection);
 final int hgrav=absGravity & Gravity.HORIZONTAL_GRAVITY_MASK;
 final int vgrav=absGravity & Gravity.VERTICAL_GRAVITY_MASK;
 final int width=getWidth();
@@ -362,12 +771,14 @@ parent.right-=mLastInsets.getSystemWindowInsetRight();
 parent.bottom-=mLastInsets.getSystemWindowInsetBottom();
 }
 final Rect out=acquireTempRect();
-GravityCompat.apply(resolveGravity(lp.gravity),child.getMeasuredWidth(),child.getMeasuredHeight(),parent,out,layoutDirection);
+final int position=mLayoutPlan.indexOf(child,layoutDirection);
+final int gravity=position >= 0 ? mLayoutPlan.getGravity(position) : resolveGravity(lp.gravity);
+GravityCompat.apply(gravity,child.getMeasuredWidth(),child.getMeasuredHeight(),parent,out,layoutDirection);
 child.layout(out.left,out.top,out.right,out.bottom);
 releaseTempRect(parent);
 releaseTempRect(out);
 }
-private static int resolveGravity(int gravity){
+static int resolveGravity(int gravity){
 if ((gravity & Gravity.HORIZONTAL_GRAVITY_MASK) == Gravity.NO_GRAVITY) {
 gravity|=GravityCompat.START;
 }
@@ -376,65 +787,83 @@ gravity|=Gravity.TOP;
 }
 return gravity;
 }
-private static int resolveKeylineGravity(int gravity){
+static int resolveKeylineGravity(int gravity){
 return gravity == Gravity.NO_GRAVITY ? GravityCompat.END | Gravity.TOP : gravity;
 }
-private static int resolveAnchoredChildGravity(int gravity){
+static int resolveAnchoredChildGravity(int gravity){
 return gravity == Gravity.NO_GRAVITY ? Gravity.CENTER : gravity;
 }
 public final void onChildViewsChanged(final int type){
+onChildViewsChanged(type,mDependencyWorklistEnabled && type == EVENT_NESTED_SCROLL);
+}
+private void onChildViewsChanged(final int type,final boolean worklist){
+if (type == EVENT_PRE_DRAW && !worklist) {
+flushNestedScrollPass();
+mPreDrawPassDirty=false;
+}
 final int layoutDirection=ViewCompat.getLayoutDirection(this);
 final int childCount=mDependencySortedChildren.size();
+final LayoutPassMetrics.Listener metricsListener=mPassMetricsListener;
+final long metricsStart=metricsListener != null ? System.nanoTime() : 0;
+final int callbacksStart=mBehaviorCallbackCount;
+final int visitedStart=mPassChildrenVisited;
+final int skippedStart=mPassChildrenSkipped;
+final long rectMissesStart=mTempRectMissCount;
+final LayoutTraceListener traceListener=mLayoutTraceListener;
+if (traceListener != null) {
+traceListener.onPassBegin(this,LayoutPassMetrics.PASS_PRE_DRAW + type);
+}
+mDependencyPass++;
 final Rect inset=acquireTempRect();
 final Rect drawRect=acquireTempRect();
 final Rect lastDrawRect=acquireTempRect();
-for (int i=0; i < childCount; i++) {
-final View child=mDependencySortedChildren.get(i);
-final LayoutParams lp=(LayoutParams)child.getLayoutParams();
+final boolean accumulateInsets=mLayoutPlan.hasInsetEdges() && mLayoutPlan.hasDodgeInsetEdges();
+for (int i=worklist ? mChildDag.nextWorklistPosition(0) : 0; i >= 0 && i < childCount; i=worklist ? mChildDag.nextWorklistPosition(i + 1) : i + 1) {
+final int node=mLayoutPlan.getNode(i);
+final View child=mLayoutPlan.getChild(i);
+final LayoutParams lp=mLayoutPlan.getLayoutParams(i);
+if (worklist && !mChildDag.isDirtyPosition(i)) {
+if (accumulateInsets) {
+accumulateInset(inset,lp.getLastChildRect(),mLayoutPlan.getInsetEdge(i));
+}
+mPassChildrenSkipped++;
+continue;
+}
 if (type == EVENT_PRE_DRAW && child.getVisibility() == View.GONE) {
+mPassChildrenSkipped++;
 continue;
 }
-for (int j=0; j < i; j++) {
-final View checkChild=mDependencySortedChildren.get(j);
-if (lp.mAnchorDirectChild == checkChild) {
+if (mLayoutPlan.getAnchorPosition(i) >= 0) {
 offsetChildToAnchor(child,layoutDirection);
 }
-}
 getChildRect(child,true,drawRect);
-if (lp.insetEdge != Gravity.NO_GRAVITY && !drawRect.isEmpty()) {
-final int absInsetEdge=GravityCompat.getAbsoluteGravity(lp.insetEdge,layoutDirection);
-switch (absInsetEdge & Gravity.VERTICAL_GRAVITY_MASK) {
-case Gravity.TOP:
-inset.top=Math.max(inset.top,drawRect.bottom);
-break;
-case Gravity.BOTTOM:
-inset.bottom=Math.max(inset.bottom,getHeight() - drawRect.top);
-break;
-}
-switch (absInsetEdge & Gravity.HORIZONTAL_GRAVITY_MASK) {
-case Gravity.LEFT:
-inset.left=Math.max(inset.left,drawRect.right);
-break;
-case Gravity.RIGHT:
-inset.right=Math.max(inset.right,getWidth() - drawRect.left);
-break;
-}
+if (accumulateInsets) {
+accumulateInset(inset,drawRect,mLayoutPlan.getInsetEdge(i));
 }
-if (lp.dodgeInsetEdges != Gravity.NO_GRAVITY && child.getVisibility() == View.VISIBLE) {
-offsetChildByInset(child,inset,layoutDirection);
+if (mLayoutPlan.getDodgeInsetEdges(i) != Gravity.NO_GRAVITY && child.getVisibility() == View.VISIBLE) {
+dodgeInset(child,lp,inset,mLayoutPlan.getDodgeInsetEdges(i));
 }
 if (type != EVENT_VIEW_REMOVED) {
 getLastChildRect(child,lastDrawRect);
 if (lastDrawRect.equals(drawRect)) {
+mPassChildrenSkipped++;
 continue;
 }
 recordLastChildRect(child,drawRect);
 }
-for (int j=i + 1; j < childCount; j++) {
-final View checkChild=mDependencySortedChildren.get(j);
-final LayoutParams checkLp=(LayoutParams)checkChild.getLayoutParams();
-final Behavior b=checkLp.getBehavior();
-if (b != null && b.layoutDependsOn(this,checkChild,child)) {
+mPassChildrenVisited++;
+if (worklist) {
+mChildDag.markDependentsDirty(node);
+}
+for (int e=mChildDag.getDependentsStart(node), end=mChildDag.getDependentsEnd(node); e < end; e++) {
+if ((mChildDag.getDependentFlags(e) & ChildDependencyGraph.EDGE_BEHAVIOR) == 0) {
+continue;
+}
+final int checkPosition=mChildDag.getSortedPosition(mChildDag.getDependent(e));
+final View checkChild=mLayoutPlan.getChild(checkPosition);
+final LayoutParams checkLp=mLayoutPlan.getLayoutParams(checkPosition);
+final Behavior b=checkLp.getDispatchBehavior();
+if (b != null) {
 if (type == EVENT_PRE_DRAW && checkLp.getChangedAfterNestedScroll()) {
 checkLp.resetChangedAfterNestedScroll();
 continue;
@@ -447,19 +876,83 @@ handled=true;
 break;
 default :
 handled=b.onDependentViewChanged(this,checkChild,child);
+mChildDag.recordDispatch(e,handled);
 break;
 }
+mBehaviorCallbackCount++;
 if (type == EVENT_NESTED_SCROLL) {
 checkLp.setChangedAfterNestedScroll(handled);
 }
 }
 }
 }
+mChildDag.clearDirty();
 releaseTempRect(inset);
 releaseTempRect(drawRect);
 releaseTempRect(lastDrawRect);
+if (metricsListener != null) {
+reportPassMetrics(metricsListener,LayoutPassMetrics.PASS_PRE_DRAW + type,metricsStart,childCount,callbacksStart,mPassChildrenVisited - visitedStart,mPassChildrenSkipped - skippedStart,rectMissesStart);
+}
+if (traceListener != null) {
+traceListener.onPassEnd(this,LayoutPassMetrics.PASS_PRE_DRAW + type,childCount);
 }
-private void offsetChildByInset(final View child,final Rect inset,final int layoutDirection){
+}
+private void accumulateInset(Rect inset,Rect drawRect,int absInsetEdge){
+if (absInsetEdge == Gravity.NO_GRAVITY || drawRect.isEmpty()) {
+return;
+}
+switch (absInsetEdge & Gravity.VERTICAL_GRAVITY_MASK) {
+case Gravity.TOP:
+inset.top=Math.max(inset.top,drawRect.bottom);
+break;
+case Gravity.BOTTOM:
+inset.bottom=Math.max(inset.bottom,getHeight() - drawRect.top);
+break;
+}
+switch (absInsetEdge & Gravity.HORIZONTAL_GRAVITY_MASK) {
+case Gravity.LEFT:
+inset.left=Math.max(inset.left,drawRect.right);
+break;
+case Gravity.RIGHT:
+inset.right=Math.max(inset.right,getWidth() - drawRect.left);
+break;
+}
+}
+public void setDependencyWorklistEnabled(boolean enabled){
+mDependencyWorklistEnabled=enabled;
+}
+public boolean isDependencyWorklistEnabled(){
+return mDependencyWorklistEnabled;
+}
+public void setMeasureCacheEnabled(boolean enabled){
+if (mMeasureCacheEnabled != enabled) {
+mMeasureCacheEnabled=enabled;
+requestLayout();
+}
+}
+public boolean isMeasureCacheEnabled(){
+return mMeasureCacheEnabled;
+}
+public void markChildDirty(View child){
+final int node=getDependencyNode(child);
+if (node >= 0) {
+mChildDag.markDirty(node);
+if (mDependencyWorklistEnabled) {
+scheduleFrameCallback();
+}
+ else {
+invalidatePreDrawPass();
+}
+}
+}
+private void dodgeInset(View child,LayoutParams lp,Rect inset,int absDodgeInsetEdges){
+if (!lp.hasCallbacks(Behavior.CALLBACK_INSET_DODGE) && lp.isDodgeCurrent(mLayoutInputsStamp,child,inset)) {
+return;
+}
+offsetChildByInset(child,inset,absDodgeInsetEdges);
+lp.setDodge(mLayoutInputsStamp,child,inset);
+}
+private void offsetChildByInset(final View child,final Rect inset,final int absDodgeInsetEdges){
 if (!ViewCompat.isLaidOut(child)) {
 return;
 }
@@ -467,11 +960,16 @@ if (child.getWidth() <= 0 || child.getHeight() <= 0) {
 return;
 }
 final LayoutParams lp=(LayoutParams)child.getLayoutParams();
-final Behavior behavior=lp.getBehavior();
+final Behavior behavior=lp.getDispatchBehavior();
 final Rect dodgeRect=acquireTempRect();
 final Rect bounds=acquireTempRect();
 bounds.set(child.getLeft(),child.getTop(),child.getRight(),child.getBottom());
-if (behavior != null && behavior.getInsetDodgeRect(this,child,dodgeRect)) {
+boolean hasDodgeRect=false;
+if (lp.hasCallbacks(Behavior.CALLBACK_INSET_DODGE)) {
+mBehaviorCallbackCount++;
+hasDodgeRect=behavior.getInsetDodgeRect(this,child,dodgeRect);
+}
+if (hasDodgeRect) {
 if (!bounds.contains(dodgeRect)) {
 throw new IllegalArgumentException("Rect should be within the child's bounds." + " Rect:" + dodgeRect.toShortString() + " | Bounds:"+ bounds.toShortString());
 }
@@ -484,7 +982,6 @@ if (dodgeRect.isEmpty()) {
 releaseTempRect(dodgeRect);
 return;
 }
-final int absDodgeInsetEdges=GravityCompat.getAbsoluteGravity(lp.dodgeInsetEdges,layoutDirection);
 boolean offsetY=false;
 if ((absDodgeInsetEdges & Gravity.TOP) == Gravity.TOP) {
 int distance=dodgeRect.top - lp.topMargin - lp.mInsetOffsetY;
@@ -540,32 +1037,39 @@ lp.mInsetOffsetY=offsetY;
 }
 }
 public void dispatchDependentViewsChanged(View view){
-final List<View> dependents=mChildDag.getIncomingEdgesInternal(view);
-if (dependents != null && !dependents.isEmpty()) {
-for (int i=0; i < dependents.size(); i++) {
-final View child=dependents.get(i);
+final int node=getDependencyNode(view);
+if (node < 0) {
+return;
+}
+for (int e=mChildDag.getDependentsStart(node), end=mChildDag.getDependentsEnd(node); e < end; e++) {
+final View child=mChildDag.getChild(mChildDag.getDependent(e));
 LayoutParams lp=(LayoutParams)child.getLayoutParams();
-Behavior b=lp.getBehavior();
+Behavior b=lp.getDispatchBehavior();
 if (b != null) {
-b.onDependentViewChanged(this,child,view);
-}
+mBehaviorCallbackCount++;
+mChildDag.recordDispatch(e,b.onDependentViewChanged(this,child,view));
 }
 }
 }
 public List<View> getDependencies(View child){
-List<View> result=mChildDag.getOutgoingEdges(child);
-return result == null ? Collections.<View>emptyList() : result;
+final int node=getDependencyNode(child);
+if (node < 0 || !mChildDag.hasDependencies(node)) {
+return Collections.<View>emptyList();
 }
-void ensurePreDrawListener(){
-boolean hasDependencies=false;
-final int childCount=getChildCount();
-for (int i=0; i < childCount; i++) {
-final View child=getChildAt(i);
-if (hasDependencies(child)) {
-hasDependencies=true;
-break;
+final int start=mChildDag.getDependenciesStart(node);
+final int end=mChildDag.getDependenciesEnd(node);
+final List<View> result=new ArrayList<>(end - start);
+for (int e=start; e < end; e++) {
+result.add(mChildDag.getChild(mChildDag.getDependency(e)));
 }
+return result;
 }
+private int getDependencyNode(View child){
+final int node=((LayoutParams)child.getLayoutParams()).mDependencyNode;
+return node >= 0 && node < mChildDag.size() && mChildDag.getChild(node) == child ? node : -1;
+}
+void ensurePreDrawListener(){
+final boolean hasDependencies=mChildDag.getEdgeCount() > 0;
 if (hasDependencies != mNeedsPreDrawListener) {
 if (hasDependencies) {
 addPreDrawListener();
@@ -575,21 +1079,35 @@ removePreDrawListener();
 }
 }
 }
-private boolean hasDependencies(View child){
-return mChildDag.hasOutgoingEdges(child);
-}
 void offsetChildToAnchor(View child,int layoutDirection){
 final LayoutParams lp=(LayoutParams)child.getLayoutParams();
 if (lp.mAnchorView != null) {
-final Rect anchorRect=acquireTempRect();
-final Rect childRect=acquireTempRect();
-final Rect desiredChildRect=acquireTempRect();
+final Rect anchorRect;
+if (lp.mAnchorRectSlot >= 0) {
+anchorRect=getAnchorRect(lp);
+}
+ else {
+anchorRect=acquireTempRect();
 getDescendantRect(lp.mAnchorView,anchorRect);
-getChildRect(child,false,childRect);
+}
 int childWidth=child.getMeasuredWidth();
 int childHeight=child.getMeasuredHeight();
-getDesiredAnchoredChildRectWithoutConstraints(layoutDirection,anchorRect,desiredChildRect,lp,childWidth,childHeight);
+if (!child.isLayoutRequested() && lp.isAnchorOffsetCurrent(mLayoutInputsStamp,child,anchorRect)) {
+if (lp.mAnchorOffsetAway) {
+dispatchAnchorChanged(child,lp);
+}
+if (lp.mAnchorRectSlot < 0) {
+releaseTempRect(anchorRect);
+}
+return;
+}
+final Rect childRect=acquireTempRect();
+final Rect desiredChildRect=acquireTempRect();
+getChildRect(child,false,childRect);
+getDesiredAnchoredChildRectWithoutConstraints(layoutDirection,anchorRect,desiredChildRect,child,lp,childWidth,childHeight);
 boolean changed=desiredChildRect.left != childRect.left || desiredChildRect.top != childRect.top;
+final int unconstrainedLeft=desiredChildRect.left;
+final int unconstrainedTop=desiredChildRect.top;
 constrainChildRect(lp,desiredChildRect,childWidth,childHeight);
 final int dx=desiredChildRect.left - childRect.left;
 final int dy=desiredChildRect.top - childRect.top;
@@ -600,54 +1118,82 @@ if (dy != 0) {
 ViewCompat.offsetTopAndBottom(child,dy);
 }
 if (changed) {
-final Behavior b=lp.getBehavior();
-if (b != null) {
-b.onDependentViewChanged(this,child,lp.mAnchorView);
-}
+dispatchAnchorChanged(child,lp);
 }
+lp.setAnchorOffset(mLayoutInputsStamp,child,anchorRect,unconstrainedLeft != desiredChildRect.left || unconstrainedTop != desiredChildRect.top);
+if (lp.mAnchorRectSlot < 0) {
 releaseTempRect(anchorRect);
+}
 releaseTempRect(childRect);
 releaseTempRect(desiredChildRect);
 }
 }
+private void dispatchAnchorChanged(View child,LayoutParams lp){
+final Behavior b=lp.getDispatchBehavior();
+if (b != null) {
+mBehaviorCallbackCount++;
+final boolean handled=b.onDependentViewChanged(this,child,lp.mAnchorView);
+final int edge=mChildDag.findDependentEdge(lp.mAnchorNode,lp.mDependencyNode);
+if (edge >= 0) {
+mChildDag.recordDispatch(edge,handled);
+}
+}
+}
 public boolean onStartNestedScroll(View child,View target,int nestedScrollAxes){
 return onStartNestedScroll(child,target,nestedScrollAxes,ViewCompat.TYPE_TOUCH);
 }
 public boolean onStartNestedScroll(View child,View target,int axes,int type){
+if (mNestedScrollTraceRecorder != null) {
+mNestedScrollTraceRecorder.recordStart(indexOfChild(child),axes,type);
+}
 boolean handled=false;
-final int childCount=getChildCount();
-for (int i=0; i < childCount; i++) {
-final View view=getChildAt(i);
+ensureBehaviorParticipants();
+final View[] participants=mNestedScrollParticipants;
+final int count=mNestedScrollParticipantCount;
+final boolean recordAccepted=type == ViewCompat.TYPE_TOUCH || type == ViewCompat.TYPE_NON_TOUCH;
+final View[] acceptedChildren=obtainAcceptedChildren(type,count);
+int acceptedCount=0;
+for (int i=0; i < count; i++) {
+final View view=participants[i];
 if (view.getVisibility() == View.GONE) {
 continue;
 }
 final LayoutParams lp=(LayoutParams)view.getLayoutParams();
-final Behavior viewBehavior=lp.getBehavior();
+final Behavior viewBehavior=lp.getDispatchBehavior();
 if (viewBehavior != null) {
 final boolean accepted=viewBehavior.onStartNestedScroll(this,view,child,target,axes,type);
 handled|=accepted;
 lp.setNestedScrollAccepted(type,accepted);
+if (accepted && recordAccepted) {
+acceptedChildren[acceptedCount++]=view;
+}
 }
  else {
 lp.setNestedScrollAccepted(type,false);
 }
 }
+if (recordAccepted) {
+setAcceptedChildCount(type,acceptedCount);
+}
 return handled;
 }
 public void onNestedScrollAccepted(View child,View target,int axes){
 onNestedScrollAccepted(child,target,axes,ViewCompat.TYPE_TOUCH);
 }
 public void onNestedScrollAccepted(View child,View target,int axes,int type){
+if (mNestedScrollTraceRecorder != null) {
+mNestedScrollTraceRecorder.recordAccepted(indexOfChild(child),axes,type);
+}
+if (mLayoutTraceListener != null && (mTracedNestedScrollTypes & (1 << type)) == 0) {
+mTracedNestedScrollTypes|=1 << type;
+mLayoutTraceListener.onNestedScrollStart(this,target,axes,type);
+}
 mNestedScrollingParentHelper.onNestedScrollAccepted(child,target,axes,type);
 mNestedScrollingTarget=target;
-final int childCount=getChildCount();
-for (int i=0; i < childCount; i++) {
-final View view=getChildAt(i);
-final LayoutParams lp=(LayoutParams)view.getLayoutParams();
-if (!lp.isNestedScrollAccepted(type)) {
-continue;
-}
-final Behavior viewBehavior=lp.getBehavior();
+final View[] acceptedChildren=getAcceptedChildren(type);
+for (int i=0, count=getAcceptedChildCount(type); i < count; i++) {
+final View view=acceptedChildren[i];
+final Behavior viewBehavior=((LayoutParams)view.getLayoutParams()).getDispatchBehavior();
 if (viewBehavior != null) {
 viewBehavior.onNestedScrollAccepted(this,view,child,target,axes,type);
 }
@@ -657,22 +1203,34 @@ public void onStopNestedScroll(View target){
 onStopNestedScroll(target,ViewCompat.TYPE_TOUCH);
 }
 public void onStopNestedScroll(View target,int type){
+if (mNestedScrollTraceRecorder != null) {
+mNestedScrollTraceRecorder.recordStop(type);
+}
+flushNestedScrollPass();
 mNestedScrollingParentHelper.onStopNestedScroll(target,type);
-final int childCount=getChildCount();
-for (int i=0; i < childCount; i++) {
-final View view=getChildAt(i);
+final View[] acceptedChildren=getAcceptedChildren(type);
+final int count=getAcceptedChildCount(type);
+for (int i=0; i < count; i++) {
+final View view=acceptedChildren[i];
 final LayoutParams lp=(LayoutParams)view.getLayoutParams();
-if (!lp.isNestedScrollAccepted(type)) {
-continue;
-}
-final Behavior viewBehavior=lp.getBehavior();
+final Behavior viewBehavior=lp.getDispatchBehavior();
 if (viewBehavior != null) {
 viewBehavior.onStopNestedScroll(this,view,target,type);
 }
 lp.resetNestedScroll(type);
 lp.resetChangedAfterNestedScroll();
 }
+if (count > 0) {
+Arrays.fill(acceptedChildren,0,count,null);
+setAcceptedChildCount(type,0);
+}
 mNestedScrollingTarget=null;
+if ((mTracedNestedScrollTypes & (1 << type)) != 0) {
+mTracedNestedScrollTypes&=~(1 << type);
+if (mLayoutTraceListener != null) {
+mLayoutTraceListener.onNestedScrollStop(this,target,type);
+}
+}
 }
 public void onNestedScroll(View target,int dxConsumed,int dyConsumed,int dxUnconsumed,int dyUnconsumed){
 onNestedScroll(target,dxConsumed,dyConsumed,dxUnconsumed,dyUnconsumed,ViewCompat.TYPE_TOUCH);
@@ -681,24 +1239,27 @@ public void onNestedScroll(View target,int dxConsumed,int dyConsumed,int dxUncon
 onNestedScroll(target,dxConsumed,dyConsumed,dxUnconsumed,dyUnconsumed,ViewCompat.TYPE_TOUCH,mNestedScrollingV2ConsumedCompat);
 }
 public void onNestedScroll(View target,int dxConsumed,int dyConsumed,int dxUnconsumed,int dyUnconsumed,int type,int[] consumed){
-final int childCount=getChildCount();
+if (mNestedScrollTraceRecorder != null) {
+mNestedScrollTraceRecorder.recordScroll(dxConsumed,dyConsumed,dxUnconsumed,dyUnconsumed,type);
+}
 boolean accepted=false;
 int xConsumed=0;
 int yConsumed=0;
-for (int i=0; i < childCount; i++) {
-final View view=getChildAt(i);
+final View[] acceptedChildren=getAcceptedChildren(type);
+final int count=getAcceptedChildCount(type);
+for (int i=0; i < count; i++) {
+final View view=acceptedChildren[i];
 if (view.getVisibility() == GONE) {
 continue;
 }
-final LayoutParams lp=(LayoutParams)view.getLayoutParams();
-if (!lp.isNestedScrollAccepted(type)) {
-continue;
-}
-final Behavior viewBehavior=lp.getBehavior();
+final Behavior viewBehavior=((LayoutParams)view.getLayoutParams()).getDispatchBehavior();
 if (viewBehavior != null) {
 mBehaviorConsumed[0]=0;
 mBehaviorConsumed[1]=0;
 viewBehavior.onNestedScroll(this,view,target,dxConsumed,dyConsumed,dxUnconsumed,dyUnconsumed,type,mBehaviorConsumed);
+if (mDependencyWorklistEnabled) {
+markChildDirty(view);
+}
 xConsumed=dxUnconsumed > 0 ? Math.max(xConsumed,mBehaviorConsumed[0]) : Math.min(xConsumed,mBehaviorConsumed[0]);
 yConsumed=dyUnconsumed > 0 ? Math.max(yConsumed,mBehaviorConsumed[1]) : Math.min(yConsumed,mBehaviorConsumed[1]);
 accepted=true;
@@ -707,31 +1268,34 @@ accepted=true;
 consumed[0]+=xConsumed;
 consumed[1]+=yConsumed;
 if (accepted) {
-onChildViewsChanged(EVENT_NESTED_SCROLL);
+dispatchNestedScrollPass();
 }
 }
 public void onNestedPreScroll(View target,int dx,int dy,int[] consumed){
 onNestedPreScroll(target,dx,dy,consumed,ViewCompat.TYPE_TOUCH);
 }
 public void onNestedPreScroll(View target,int dx,int dy,int[] consumed,int type){
+if (mNestedScrollTraceRecorder != null) {
+mNestedScrollTraceRecorder.recordPreScroll(dx,dy,type);
+}
 int xConsumed=0;
 int yConsumed=0;
 boolean accepted=false;
-final int childCount=getChildCount();
-for (int i=0; i < childCount; i++) {
-final View view=getChildAt(i);
+final View[] acceptedChildren=getAcceptedChildren(type);
+final int count=getAcceptedChildCount(type);
+for (int i=0; i < count; i++) {
+final View view=acceptedChildren[i];
 if (view.getVisibility() == GONE) {
 continue;
 }
-final LayoutParams lp=(LayoutParams)view.getLayoutParams();
-if (!lp.isNestedScrollAccepted(type)) {
-continue;
-}
-final Behavior viewBehavior=lp.getBehavior();
+final Behavior viewBehavior=((LayoutParams)view.getLayoutParams()).getDispatchBehavior();
 if (viewBehavior != null) {
 mBehaviorConsumed[0]=0;
 mBehaviorConsumed[1]=0;
 viewBehavior.onNestedPreScroll(this,view,target,dx,dy,mBehaviorConsumed,type);
+if (mDependencyWorklistEnabled) {
+markChildDirty(view);
+}
 xConsumed=dx > 0 ? Math.max(xConsumed,mBehaviorConsumed[0]) : Math.min(xConsumed,mBehaviorConsumed[0]);
 yConsumed=dy > 0 ? Math.max(yConsumed,mBehaviorConsumed[1]) : Math.min(yConsumed,mBehaviorConsumed[1]);
 accepted=true;
@@ -740,50 +1304,191 @@ accepted=true;
 consumed[0]=xConsumed;
 consumed[1]=yConsumed;
 if (accepted) {
-onChildViewsChanged(EVENT_NESTED_SCROLL);
+dispatchNestedScrollPass();
 }
 }
 public boolean onNestedFling(View target,float velocityX,float velocityY,boolean consumed){
-boolean handled=false;
-final int childCount=getChildCount();
-for (int i=0; i < childCount; i++) {
-final View view=getChildAt(i);
-if (view.getVisibility() == GONE) {
-continue;
+if (mNestedScrollTraceRecorder != null) {
+mNestedScrollTraceRecorder.recordFling(velocityX,velocityY,consumed);
 }
+boolean handled=false;
+final View[] acceptedChildren=mAcceptedTouchChildren;
+for (int i=0, count=mAcceptedTouchChildCount; i < count; i++) {
+final View view=acceptedChildren[i];
 final LayoutParams lp=(LayoutParams)view.getLayoutParams();
-if (!lp.isNestedScrollAccepted(ViewCompat.TYPE_TOUCH)) {
+if (view.getVisibility() == GONE || !lp.hasCallbacks(Behavior.CALLBACK_FLING)) {
 continue;
 }
-final Behavior viewBehavior=lp.getBehavior();
+final Behavior viewBehavior=lp.getDispatchBehavior();
 if (viewBehavior != null) {
 handled|=viewBehavior.onNestedFling(this,view,target,velocityX,velocityY,consumed);
+if (mDependencyWorklistEnabled) {
+markChildDirty(view);
+}
 }
 }
 if (handled) {
-onChildViewsChanged(EVENT_NESTED_SCROLL);
+dispatchNestedScrollPass();
 }
 return handled;
 }
 public boolean onNestedPreFling(View target,float velocityX,float velocityY){
-boolean handled=false;
-final int childCount=getChildCount();
-for (int i=0; i < childCount; i++) {
-final View view=getChildAt(i);
-if (view.getVisibility() == GONE) {
-continue;
+if (mNestedScrollTraceRecorder != null) {
+mNestedScrollTraceRecorder.recordPreFling(velocityX,velocityY);
 }
+boolean handled=false;
+final View[] acceptedChildren=mAcceptedTouchChildren;
+for (int i=0, count=mAcceptedTouchChildCount; i < count; i++) {
+final View view=acceptedChildren[i];
 final LayoutParams lp=(LayoutParams)view.getLayoutParams();
-if (!lp.isNestedScrollAccepted(ViewCompat.TYPE_TOUCH)) {
+if (view.getVisibility() == GONE || !lp.hasCallbacks(Behavior.CALLBACK_FLING)) {
 continue;
 }
-final Behavior viewBehavior=lp.getBehavior();
+final Behavior viewBehavior=lp.getDispatchBehavior();
 if (viewBehavior != null) {
 handled|=viewBehavior.onNestedPreFling(this,view,target,velocityX,velocityY);
 }
 }
 return handled;
 }
+public void setNestedScrollTraceRecorder(NestedScrollTrace.Recorder recorder){
+mNestedScrollTraceRecorder=recorder;
+}
+public NestedScrollTrace.Recorder getNestedScrollTraceRecorder(){
+return mNestedScrollTraceRecorder;
+}
+public void setBehaviorProfiler(BehaviorProfiler profiler){
+if (mBehaviorProfiler != profiler) {
+mBehaviorProfiler=profiler;
+for (int i=0, count=getChildCount(); i < count; i++) {
+getResolvedLayoutParams(getChildAt(i));
+}
+}
+}
+public BehaviorProfiler getBehaviorProfiler(){
+return mBehaviorProfiler;
+}
+public void setLayoutTraceListener(LayoutTraceListener listener){
+mLayoutTraceListener=listener;
+mTracedNestedScrollTypes=0;
+}
+public LayoutTraceListener getLayoutTraceListener(){
+return mLayoutTraceListener;
+}
+public String exportDependencyGraphDot(){
+return DependencyGraphExporter.toDot(mChildDag);
+}
+public String exportDependencyGraphJson(){
+return DependencyGraphExporter.toJson(mChildDag);
+}
+public void resetDependencyGraphCounters(){
+mChildDag.resetDispatchCounts();
+}
+private void dispatchNestedScrollPass(){
+if (!mNestedScrollPassCoalescingEnabled) {
+onChildViewsChanged(EVENT_NESTED_SCROLL);
+}
+ else if (!mNestedScrollPassPending) {
+mNestedScrollPassPending=true;
+scheduleFrameCallback();
+}
+}
+private void flushNestedScrollPass(){
+if (mNestedScrollPassPending) {
+mNestedScrollPassPending=false;
+onChildViewsChanged(EVENT_NESTED_SCROLL);
+}
+}
+public void setNestedScrollPassCoalescingEnabled(boolean enabled){
+mNestedScrollPassCoalescingEnabled=enabled;
+if (!enabled) {
+flushNestedScrollPass();
+}
+}
+public boolean isNestedScrollPassCoalescingEnabled(){
+return mNestedScrollPassCoalescingEnabled;
+}
+private View[] obtainAcceptedChildren(int type,int capacity){
+if (type == ViewCompat.TYPE_NON_TOUCH) {
+if (mAcceptedNonTouchChildren.length < capacity) {
+mAcceptedNonTouchChildren=new View[capacity];
+}
+return mAcceptedNonTouchChildren;
+}
+if (mAcceptedTouchChildren.length < capacity) {
+mAcceptedTouchChildren=new View[capacity];
+}
+return mAcceptedTouchChildren;
+}
+private View[] getAcceptedChildren(int type){
+return type == ViewCompat.TYPE_NON_TOUCH ? mAcceptedNonTouchChildren : mAcceptedTouchChildren;
+}
+private int getAcceptedChildCount(int type){
+switch (type) {
+case ViewCompat.TYPE_TOUCH:
+return mAcceptedTouchChildCount;
+case ViewCompat.TYPE_NON_TOUCH:
+return mAcceptedNonTouchChildCount;
+}
+return 0;
+}
+private void setAcceptedChildCount(int type,int count){
+final View[] acceptedChildren=getAcceptedChildren(type);
+Arrays.fill(acceptedChildren,count,acceptedChildren.length,null);
+if (type == ViewCompat.TYPE_NON_TOUCH) {
+mAcceptedNonTouchChildCount=count;
+}
+ else {
+mAcceptedTouchChildCount=count;
+}
+}
+private void removeAcceptedChild(View child){
+for (int type=ViewCompat.TYPE_TOUCH; type <= ViewCompat.TYPE_NON_TOUCH; type++) {
+final View[] acceptedChildren=getAcceptedChildren(type);
+final int count=getAcceptedChildCount(type);
+for (int i=0; i < count; i++) {
+if (acceptedChildren[i] == child) {
+System.arraycopy(acceptedChildren,i + 1,acceptedChildren,i,count - i - 1);
+setAcceptedChildCount(type,count - 1);
+break;
+}
+}
+}
+}
+private void ensureBehaviorParticipants(){
+if (!mBehaviorParticipantsDirty && !haveBehaviorParticipantsChanged()) {
+return;
+}
+final int childCount=getChildCount();
+if (mNestedScrollParticipants.length < childCount) {
+mNestedScrollParticipants=new View[childCount];
+}
+int scrollCount=0;
+for (int i=0; i < childCount; i++) {
+final View view=getChildAt(i);
+final LayoutParams lp=getResolvedLayoutParams(view);
+lp.mBehaviorParticipantsStale=false;
+if (lp.hasCallbacks(Behavior.CALLBACK_NESTED_SCROLL)) {
+mNestedScrollParticipants[scrollCount++]=view;
+}
+ else {
+lp.resetNestedScroll(ViewCompat.TYPE_TOUCH);
+lp.resetNestedScroll(ViewCompat.TYPE_NON_TOUCH);
+}
+}
+Arrays.fill(mNestedScrollParticipants,scrollCount,mNestedScrollParticipants.length,null);
+mNestedScrollParticipantCount=scrollCount;
+mBehaviorParticipantsDirty=false;
+}
+private boolean haveBehaviorParticipantsChanged(){
+for (int i=0, count=getChildCount(); i < count; i++) {
+final LayoutParams lp=getResolvedLayoutParams(getChildAt(i));
+if (lp.mBehaviorParticipantsStale) {
+return true;
+}
+}
+return false;
+}
 public int getNestedScrollAxes(){
 return mNestedScrollingParentHelper.getNestedScrollAxes();
 }
@@ -791,8 +1496,22 @@ public interface AttachedBehavior {
 Behavior getBehavior();
 }
 public static abstract class Behavior<V extends View> {
+public static final int CALLBACK_DEPENDENCY=1;
+public static final int CALLBACK_MEASURE=1 << 1;
+public static final int CALLBACK_LAYOUT=1 << 2;
+public static final int CALLBACK_NESTED_SCROLL=1 << 3;
+public static final int CALLBACK_FLING=1 << 4;
+public static final int CALLBACK_INSET_DODGE=1 << 5;
+public static final int CALLBACK_ALL=CALLBACK_DEPENDENCY | CALLBACK_MEASURE | CALLBACK_LAYOUT | CALLBACK_NESTED_SCROLL | CALLBACK_FLING | CALLBACK_INSET_DODGE;
 public Behavior(){
 }
+/** 
+ * Returns the callback groups this behavior implements, as a combination of the {@code CALLBACK_} constants. The layout never calls the callbacks of a group which is left out, e.g. a behavior without {@link #CALLBACK_NESTED_SCROLL} is not offered nested scrolls and one without {@link #CALLBACK_FLING} is skipped for flings. The flags are read when the behavior is set on its {@link LayoutParams}.
+ * <p>The default, {@link #CALLBACK_ALL}, keeps every callback, so only behaviors which override this method are dispatched to selectively. A subclass of a behavior which narrows the flags must widen them again, e.g. {@code super.getCallbackFlags() | CALLBACK_MEASURE}, for every callback it overrides outside the parent's groups, or that override is silently never called.</p>
+ */
+public int getCallbackFlags(){
+return CALLBACK_ALL;
+}
 public void onAttachedToLayoutParams(CoordinatorLayout.LayoutParams params){
 }
 public void onDetachedFromLayoutParams(){
@@ -808,6 +1527,12 @@ public void onDependentViewRemoved(CoordinatorLayout parent,V child,View depende
 public boolean onMeasureChild(CoordinatorLayout parent,V child,int parentWidthMeasureSpec,int widthUsed,int parentHeightMeasureSpec,int heightUsed){
 return false;
 }
+/** 
+ * Returns whether the layout may skip measuring {@code child}, and so calling {@link #onMeasureChild}, when its measure specs and used width are the same as in the last measure and it has not requested a layout. The default allows it. Override this to return false if the measurement also depends on something else, e.g. the size of a view the child depends on.
+ */
+public boolean canSkipMeasure(CoordinatorLayout parent,V child){
+return true;
+}
 public boolean onLayoutChild(CoordinatorLayout parent,V child,int layoutDirection){
 return false;
 }
@@ -859,12 +1584,18 @@ return false;
 public boolean onNestedPreFling(CoordinatorLayout coordinatorLayout,V child,View target,float velocityX,float velocityY){
 return false;
 }
+public WindowInsetsCompat onApplyWindowInsets(CoordinatorLayout coordinatorLayout,V child,WindowInsetsCompat insets){
+return insets;
+}
 public boolean getInsetDodgeRect(CoordinatorLayout parent,V child,Rect rect){
 return false;
 }
 }
 public static class LayoutParams extends MarginLayoutParams {
 Behavior mBehavior;
+boolean mBehaviorParticipantsStale=true;
+Behavior mDispatchBehavior;
+int mBehaviorFlags;
 boolean mBehaviorResolved=false;
 public int gravity=Gravity.NO_GRAVITY;
 public int anchorGravity=Gravity.NO_GRAVITY;
@@ -876,12 +1607,54 @@ int mInsetOffsetX;
 int mInsetOffsetY;
 View mAnchorView;
 View mAnchorDirectChild;
+int mAnchorNode=-1;
+int mAnchorRectSlot=-1;
+int mLayoutPlanPosition=-1;
+private int mAnchorOffsetStamp;
+private View mAnchorOffsetView;
+private final Rect mAnchorOffsetRect=new Rect();
+private int mAnchorOffsetWidth;
+private int mAnchorOffsetHeight;
+private int mAnchorOffsetLeft;
+private int mAnchorOffsetTop;
+boolean mAnchorOffsetAway;
+private int mDodgeStamp;
+private final Rect mDodgeInset=new Rect();
+private final Rect mDodgeBounds=new Rect();
 private boolean mDidBlockInteraction;
 private boolean mDidAcceptNestedScrollTouch;
 private boolean mDidAcceptNestedScrollNonTouch;
 private boolean mDidChangeAfterNestedScroll;
 final Rect mLastChildRect=new Rect();
 Object mBehaviorTag;
+int mDependencyNode=-1;
+private boolean mDependenciesPrepared;
+private View mPreparedAnchorView;
+private View mPreparedAnchorDirectChild;
+private Behavior mPreparedBehavior;
+private int mPreparedInsetEdge;
+private int mPreparedDodgeInsetEdges;
+private int mPreparedGravity;
+private int mPreparedAnchorGravity;
+private int mPreparedKeyline;
+private boolean mMeasureCacheValid;
+private int mMeasuredWidthSpec;
+private int mMeasuredWidthUsed;
+private int mMeasuredHeightSpec;
+private int mLayoutStamp;
+private int mLaidOutWidth;
+private int mLaidOutHeight;
+private int mLaidOutGravity;
+private int mLaidOutAnchorGravity;
+private int mLaidOutKeyline;
+private int mLaidOutLeftMargin;
+private int mLaidOutTopMargin;
+private int mLaidOutRightMargin;
+private int mLaidOutBottomMargin;
+private boolean mLaidOutFitsSystemWindows;
+private View mLaidOutAnchorView;
+private final Rect mLaidOutAnchorRect=new Rect();
+final Rect mLaidOutFrame=new Rect();
 public LayoutParams(int width,int height){
 super(width,height);
 }
@@ -897,29 +1670,115 @@ return mAnchorId;
 public void setAnchorId(int id){
 invalidateAnchor();
 mAnchorId=id;
+mDependenciesPrepared=false;
 }
 public Behavior getBehavior(){
 return mBehavior;
 }
+Behavior getDispatchBehavior(){
+return mDispatchBehavior;
+}
 public void setBehavior(Behavior behavior){
 if (mBehavior != behavior) {
 if (mBehavior != null) {
 mBehavior.onDetachedFromLayoutParams();
 }
 mBehavior=behavior;
+mDispatchBehavior=behavior;
+mBehaviorFlags=behavior != null ? behavior.getCallbackFlags() : 0;
 mBehaviorTag=null;
 mBehaviorResolved=true;
+mDependenciesPrepared=false;
+mMeasureCacheValid=false;
+mLayoutStamp=0;
+mAnchorOffsetStamp=0;
+mDodgeStamp=0;
+mBehaviorParticipantsStale=true;
 if (behavior != null) {
 behavior.onAttachedToLayoutParams(this);
 }
 }
 }
+boolean hasCallbacks(int flags){
+return (mBehaviorFlags & flags) != 0;
+}
 void setLastChildRect(Rect r){
 mLastChildRect.set(r);
 }
 Rect getLastChildRect(){
 return mLastChildRect;
 }
+void onDependenciesPrepared(){
+mDependenciesPrepared=true;
+mPreparedAnchorView=mAnchorView;
+mPreparedAnchorDirectChild=mAnchorDirectChild;
+mPreparedBehavior=mBehavior;
+mPreparedInsetEdge=insetEdge;
+mPreparedDodgeInsetEdges=dodgeInsetEdges;
+mPreparedGravity=gravity;
+mPreparedAnchorGravity=anchorGravity;
+mPreparedKeyline=keyline;
+}
+boolean haveDependenciesChanged(){
+return !mDependenciesPrepared || mPreparedAnchorView != mAnchorView || mPreparedAnchorDirectChild != mAnchorDirectChild || mPreparedBehavior != mBehavior || mPreparedInsetEdge != insetEdge || mPreparedDodgeInsetEdges != dodgeInsetEdges || mPreparedGravity != gravity || mPreparedAnchorGravity != anchorGravity || mPreparedKeyline != keyline;
+}
+boolean isMeasureCached(int widthSpec,int widthUsed,int heightSpec){
+return mMeasureCacheValid && mMeasuredWidthSpec == widthSpec && mMeasuredWidthUsed == widthUsed && mMeasuredHeightSpec == heightSpec;
+}
+void setMeasureCache(int widthSpec,int widthUsed,int heightSpec){
+mMeasureCacheValid=true;
+mMeasuredWidthSpec=widthSpec;
+mMeasuredWidthUsed=widthUsed;
+mMeasuredHeightSpec=heightSpec;
+}
+public void invalidateMeasureCache(){
+mMeasureCacheValid=false;
+}
+boolean isLayoutCached(int stamp,View child,Rect anchorRect){
+return mLayoutStamp == stamp && mLaidOutWidth == child.getMeasuredWidth() && mLaidOutHeight == child.getMeasuredHeight() && mLaidOutGravity == gravity && mLaidOutAnchorGravity == anchorGravity && mLaidOutKeyline == keyline && mLaidOutLeftMargin == leftMargin && mLaidOutTopMargin == topMargin && mLaidOutRightMargin == rightMargin && mLaidOutBottomMargin == bottomMargin && mLaidOutFitsSystemWindows == ViewCompat.getFitsSystemWindows(child) && mLaidOutAnchorView == mAnchorView && mLaidOutAnchorRect.equals(anchorRect);
+}
+void setLayoutCache(int stamp,View child,Rect anchorRect){
+mLayoutStamp=stamp;
+mLaidOutWidth=child.getMeasuredWidth();
+mLaidOutHeight=child.getMeasuredHeight();
+mLaidOutGravity=gravity;
+mLaidOutAnchorGravity=anchorGravity;
+mLaidOutKeyline=keyline;
+mLaidOutLeftMargin=leftMargin;
+mLaidOutTopMargin=topMargin;
+mLaidOutRightMargin=rightMargin;
+mLaidOutBottomMargin=bottomMargin;
+mLaidOutFitsSystemWindows=ViewCompat.getFitsSystemWindows(child);
+mLaidOutAnchorView=mAnchorView;
+mLaidOutAnchorRect.set(anchorRect);
+mLaidOutFrame.set(child.getLeft(),child.getTop(),child.getRight(),child.getBottom());
+}
+public void invalidateLayoutCache(){
+mLayoutStamp=0;
+mAnchorOffsetStamp=0;
+mDodgeStamp=0;
+}
+boolean isAnchorOffsetCurrent(int stamp,View child,Rect anchorRect){
+return mAnchorOffsetStamp == stamp && mAnchorOffsetView == mAnchorView && mAnchorOffsetWidth == child.getMeasuredWidth() && mAnchorOffsetHeight == child.getMeasuredHeight() && mAnchorOffsetLeft == child.getLeft() && mAnchorOffsetTop == child.getTop() && mAnchorOffsetRect.equals(anchorRect);
+}
+boolean isDodgeCurrent(int stamp,View child,Rect inset){
+return mDodgeStamp == stamp && mDodgeInset.equals(inset) && mDodgeBounds.left == child.getLeft() && mDodgeBounds.top == child.getTop() && mDodgeBounds.right == child.getRight() && mDodgeBounds.bottom == child.getBottom();
+}
+void setDodge(int stamp,View child,Rect inset){
+mDodgeStamp=stamp;
+mDodgeInset.set(inset);
+mDodgeBounds.set(child.getLeft(),child.getTop(),child.getRight(),child.getBottom());
+}
+void setAnchorOffset(int stamp,View child,Rect anchorRect,boolean away){
+mAnchorOffsetStamp=stamp;
+mAnchorOffsetAway=away;
+mAnchorOffsetView=mAnchorView;
+mAnchorOffsetRect.set(anchorRect);
+mAnchorOffsetWidth=child.getMeasuredWidth();
+mAnchorOffsetHeight=child.getMeasuredHeight();
+mAnchorOffsetLeft=child.getLeft();
+mAnchorOffsetTop=child.getTop();
+}
 boolean checkAnchorChanged(){
 return mAnchorView == null && mAnchorId != View.NO_ID;
 }
@@ -954,8 +1813,21 @@ mDidChangeAfterNestedScroll=changed;
 void resetChangedAfterNestedScroll(){
 mDidChangeAfterNestedScroll=false;
 }
-boolean dependsOn(CoordinatorLayout parent,View child,View dependency){
-return dependency == mAnchorDirectChild || shouldDodge(dependency,ViewCompat.getLayoutDirection(parent)) || (mBehavior != null && mBehavior.layoutDependsOn(parent,child,dependency));
+int getDependencyFlags(CoordinatorLayout parent,View child,View dependency){
+int flags=0;
+if (dependency == mAnchorDirectChild) {
+flags|=ChildDependencyGraph.EDGE_ANCHOR;
+}
+if (shouldDodge(dependency,ViewCompat.getLayoutDirection(parent))) {
+flags|=ChildDependencyGraph.EDGE_DODGE;
+}
+if (hasCallbacks(Behavior.CALLBACK_DEPENDENCY)) {
+parent.mBehaviorCallbackCount++;
+if (mDispatchBehavior.layoutDependsOn(parent,child,dependency)) {
+flags|=ChildDependencyGraph.EDGE_BEHAVIOR;
+}
+}
+return flags;
 }
 void invalidateAnchor(){
 mAnchorView=mAnchorDirectChild=null;
@@ -971,7 +1843,7 @@ resolveAnchorView(forChild,parent);
 return mAnchorView;
 }
 private void resolveAnchorView(final View forChild,final CoordinatorLayout parent){
-mAnchorView=parent.findViewById(mAnchorId);
+mAnchorView=parent.getId() == mAnchorId ? parent : parent.findIndexedAnchorView(mAnchorId);
 if (mAnchorView != null) {
 if (mAnchorView == parent) {
 if (parent.isInEditMode()) {
@@ -980,19 +1852,14 @@ return;
 }
 throw new IllegalStateException("View can not be anchored to the the parent CoordinatorLayout");
 }
-View directChild=mAnchorView;
-for (ViewParent p=mAnchorView.getParent(); p != parent && p != null; p=p.getParent()) {
-if (p == forChild) {
+final View directChild=parent.getIndexedAnchorDirectChild(mAnchorId);
+if (directChild == forChild && mAnchorView != forChild) {
 if (parent.isInEditMode()) {
 mAnchorView=mAnchorDirectChild=null;
 return;
 }
 throw new IllegalStateException("Anchor must not be a descendant of the anchored view");
 }
-if (p instanceof View) {
-directChild=(View)p;
-}
-}
 mAnchorDirectChild=directChild;
 }
  else {
@@ -1028,6 +1895,7 @@ return absInset != Gravity.NO_GRAVITY && (absInset & GravityCompat.getAbsoluteGr
 }
 public void setKeyLines(int[] keyLines){
 mKeylines=keyLines;
+updateLayoutPlanKeylines();
 }
 LayoutParams getResolvedLayoutParams(View child){
 final LayoutParams result=(LayoutParams)child.getLayoutParams();
@@ -1042,24 +1910,95 @@ result.mBehaviorResolved=true;
 }
 }
 result.mBehaviorResolved=true;
+result.mDispatchBehavior=mBehaviorProfiler != null ? mBehaviorProfiler.wrap(result.mBehavior,child,result.mDispatchBehavior) : result.mBehavior;
 return result;
 }
 void addPreDrawListener(){
+mNeedsPreDrawListener=true;
+invalidatePreDrawPass();
 }
 void removePreDrawListener(){
+mNeedsPreDrawListener=false;
+mPreDrawPassDirty=false;
+}
+void invalidatePreDrawPass(){
+mPreDrawPassDirty=true;
+scheduleFrameCallback();
+}
+private void scheduleFrameCallback(){
+if (mFrameCallbackPosted) {
+return;
+}
+if (mNestedScrollPassPending || ((mPreDrawPassDirty || (mDependencyWorklistEnabled && mChildDag.hasDirty())) && mNeedsPreDrawListener && mIsAttachedToWindow)) {
+mFrameCallbackPosted=true;
+ViewCompat.postOnAnimation(this,mFrameCallback);
+}
+}
+public void onAttachedToWindow(){
+super.onAttachedToWindow();
+mIsAttachedToWindow=true;
+if (mNeedsPreDrawListener) {
+invalidatePreDrawPass();
+}
+}
+public void onDetachedFromWindow(){
+super.onDetachedFromWindow();
+mIsAttachedToWindow=false;
+mNestedScrollPassPending=false;
+if (mFrameCallbackPosted) {
+mFrameCallbackPosted=false;
+removeCallbacks(mFrameCallback);
+}
+}
+public static final class WindowInsetsCompat {
+private final int mLeft;
+private final int mTop;
+private final int mRight;
+private final int mBottom;
+private final boolean mConsumed;
+public WindowInsetsCompat(int left,int top,int right,int bottom){
+this(left,top,right,bottom,false);
+}
+private WindowInsetsCompat(int left,int top,int right,int bottom,boolean consumed){
+mLeft=left;
+mTop=top;
+mRight=right;
+mBottom=bottom;
+mConsumed=consumed;
 }
-class WindowInsetsCompat {
 public int getSystemWindowInsetLeft(){
-return 0;
+return mLeft;
 }
 public int getSystemWindowInsetBottom(){
-return 0;
+return mBottom;
 }
 public int getSystemWindowInsetTop(){
-return 0;
+return mTop;
 }
 public int getSystemWindowInsetRight(){
-return 0;
+return mRight;
+}
+public boolean isConsumed(){
+return mConsumed;
+}
+public WindowInsetsCompat consumeSystemWindowInsets(){
+return mConsumed ? this : new WindowInsetsCompat(0,0,0,0,true);
+}
+boolean equals(int left,int top,int right,int bottom){
+return !mConsumed && mLeft == left && mTop == top && mRight == right && mBottom == bottom;
+}
+@Override public boolean equals(Object o){
+if (this == o) {
+return true;
+}
+if (!(o instanceof WindowInsetsCompat)) {
+return false;
+}
+final WindowInsetsCompat other=(WindowInsetsCompat)o;
+return mConsumed == other.mConsumed && mLeft == other.mLeft && mTop == other.mTop && mRight == other.mRight && mBottom == other.mBottom;
+}
+@Override public int hashCode(){
+return 31 * (31 * (31 * (31 * mLeft + mTop) + mRight) + mBottom) + (mConsumed ? 1 : 0);
 }
 }
 static class ViewGroupUtils {
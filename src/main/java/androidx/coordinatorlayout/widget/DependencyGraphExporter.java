@@ -0,0 +1,165 @@
+//start - license
+/*
+ * Copyright (c) 2025 Ashera Cordova
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+//end - license
+
+package androidx.coordinatorlayout.widget;
+
+import r.android.annotation.NonNull;
+import r.android.view.View;
+
+/**
+ * Writes a {@link ChildDependencyGraph} as Graphviz DOT or JSON.
+ *
+ * <p>Nodes are the layout's direct children, identified by their index, with the child's id,
+ * class, behavior class, anchor id and inset and dodge edges. Edges point from a dependency to
+ * its dependent, the direction in which changes are dispatched, and carry why the edge exists
+ * and how often {@code onDependentViewChanged} was dispatched over it and returned true.</p>
+ */
+final class DependencyGraphExporter {
+    private DependencyGraphExporter() {
+    }
+
+    @NonNull
+    static String toDot(@NonNull ChildDependencyGraph graph) {
+        final StringBuilder out = new StringBuilder("digraph CoordinatorLayout {\n");
+        out.append("  node [shape=box];\n");
+        for (int node = 0, count = graph.size(); node < count; node++) {
+            final View child = graph.getChild(node);
+            final CoordinatorLayout.LayoutParams lp =
+                    (CoordinatorLayout.LayoutParams) child.getLayoutParams();
+            out.append("  n").append(node).append(" [label=\"#").append(node)
+                    .append(" id=").append(child.getId())
+                    .append("\\n").append(child.getClass().getSimpleName());
+            final CoordinatorLayout.Behavior behavior = lp.getBehavior();
+            if (behavior != null) {
+                out.append("\\n").append(behavior.getClass().getSimpleName());
+            }
+            if (lp.getAnchorId() != View.NO_ID) {
+                out.append("\\nanchor=").append(lp.getAnchorId());
+            }
+            if (lp.insetEdge != 0) {
+                out.append("\\ninsetEdge=0x").append(Integer.toHexString(lp.insetEdge));
+            }
+            if (lp.dodgeInsetEdges != 0) {
+                out.append("\\ndodge=0x").append(Integer.toHexString(lp.dodgeInsetEdges));
+            }
+            out.append("\"];\n");
+        }
+        for (int node = 0, count = graph.size(); node < count; node++) {
+            for (int e = graph.getDependentsStart(node), end = graph.getDependentsEnd(node);
+                    e < end; e++) {
+                final int dispatched = graph.getDispatchCount(e);
+                out.append("  n").append(node).append(" -> n").append(graph.getDependent(e))
+                        .append(" [label=\"");
+                appendFlags(out, graph.getDependentFlags(e), false);
+                out.append(' ').append(graph.getHandledCount(e)).append('/').append(dispatched)
+                        .append("\"");
+                if (dispatched > 0 && graph.getHandledCount(e) == 0) {
+                    // Dispatched but never acted on, a candidate for removal
+                    out.append(", style=dashed");
+                }
+                out.append("];\n");
+            }
+        }
+        return out.append("}\n").toString();
+    }
+
+    @NonNull
+    static String toJson(@NonNull ChildDependencyGraph graph) {
+        final StringBuilder out = new StringBuilder("{\"nodes\":[");
+        for (int node = 0, count = graph.size(); node < count; node++) {
+            final View child = graph.getChild(node);
+            final CoordinatorLayout.LayoutParams lp =
+                    (CoordinatorLayout.LayoutParams) child.getLayoutParams();
+            final CoordinatorLayout.Behavior behavior = lp.getBehavior();
+            if (node > 0) {
+                out.append(',');
+            }
+            out.append("{\"index\":").append(node)
+                    .append(",\"sortedPosition\":").append(graph.getSortedPosition(node))
+                    .append(",\"id\":").append(child.getId())
+                    .append(",\"class\":");
+            appendString(out, child.getClass().getName());
+            out.append(",\"behavior\":");
+            if (behavior != null) {
+                appendString(out, behavior.getClass().getName());
+            } else {
+                out.append("null");
+            }
+            out.append(",\"anchorId\":").append(lp.getAnchorId())
+                    .append(",\"insetEdge\":").append(lp.insetEdge)
+                    .append(",\"dodgeInsetEdges\":").append(lp.dodgeInsetEdges)
+                    .append('}');
+        }
+        out.append("],\"edges\":[");
+        boolean first = true;
+        for (int node = 0, count = graph.size(); node < count; node++) {
+            for (int e = graph.getDependentsStart(node), end = graph.getDependentsEnd(node);
+                    e < end; e++) {
+                if (!first) {
+                    out.append(',');
+                }
+                first = false;
+                out.append("{\"from\":").append(node)
+                        .append(",\"to\":").append(graph.getDependent(e))
+                        .append(",\"flags\":[");
+                appendFlags(out, graph.getDependentFlags(e), true);
+                out.append("],\"dispatched\":").append(graph.getDispatchCount(e))
+                        .append(",\"handled\":").append(graph.getHandledCount(e))
+                        .append('}');
+            }
+        }
+        return out.append("]}").toString();
+    }
+
+    private static void appendFlags(StringBuilder out, int flags, boolean json) {
+        final int start = out.length();
+        if ((flags & ChildDependencyGraph.EDGE_ANCHOR) != 0) {
+            appendFlag(out, "anchor", start, json);
+        }
+        if ((flags & ChildDependencyGraph.EDGE_DODGE) != 0) {
+            appendFlag(out, "dodge", start, json);
+        }
+        if ((flags & ChildDependencyGraph.EDGE_BEHAVIOR) != 0) {
+            appendFlag(out, "behavior", start, json);
+        }
+    }
+
+    private static void appendFlag(StringBuilder out, String flag, int start, boolean json) {
+        if (out.length() > start) {
+            out.append(json ? ',' : '|');
+        }
+        if (json) {
+            appendString(out, flag);
+        } else {
+            out.append(flag);
+        }
+    }
+
+    private static void appendString(StringBuilder out, String value) {
+        out.append('"');
+        for (int i = 0, length = value.length(); i < length; i++) {
+            final char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.append('\\').append(c);
+            } else if (c < 0x20) {
+                out.append(String.format("\\u%04x", (int) c));
+            } else {
+                out.append(c);
+            }
+        }
+        out.append('"');
+    }
+}
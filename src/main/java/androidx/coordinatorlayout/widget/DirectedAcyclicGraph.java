@@ -40,7 +40,8 @@ import androidx.collection.SimpleArrayMap;
 import r.android.util.Pools;
 
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 
 /**
@@ -54,9 +55,22 @@ import java.util.List;
 public final class DirectedAcyclicGraph<T> {
     private final Pools.Pool<ArrayList<T>> mListPool = new Pools.SimplePool<>(10);
     private final SimpleArrayMap<T, ArrayList<T>> mGraph = new SimpleArrayMap<>();
+    // Reverse index of mGraph: maps a node to the nodes which it is an incoming edge of
+    private final SimpleArrayMap<T, ArrayList<T>> mOutgoingGraph = new SimpleArrayMap<>();
 
     private final ArrayList<T> mSortResult = new ArrayList<>();
-    private final HashSet<T> mSortTmpMarked = new HashSet<>();
+    private int[] mSortState = new int[0];
+    private int[] mSortStack = new int[0];
+    private int[] mSortEdgeCursor = new int[0];
+    // Edges resolved to node indices for the sort: the edges of node i are
+    // mSortEdges[mSortEdgeStart[i]] to mSortEdges[mSortEdgeStart[i + 1] - 1]
+    private final HashMap<T, Integer> mSortIndex = new HashMap<>();
+    private int[] mSortEdgeStart = new int[1];
+    private int[] mSortEdges = new int[0];
+
+    private static final int SORT_UNVISITED = 0;
+    private static final int SORT_ON_STACK = 1;
+    private static final int SORT_DONE = 2;
 
    /**
      * Add a node to the graph.
@@ -101,6 +115,14 @@ public final class DirectedAcyclicGraph<T> {
         }
         // Finally add the edge to the list
         edges.add(incomingEdge);
+
+        // Keep the reverse index in sync so that outgoing edge queries don't need to scan
+        ArrayList<T> outgoing = mOutgoingGraph.get(incomingEdge);
+        if (outgoing == null) {
+            outgoing = getEmptyList();
+            mOutgoingGraph.put(incomingEdge, outgoing);
+        }
+        outgoing.add(node);
     }
 
    /**
@@ -136,17 +158,23 @@ public final class DirectedAcyclicGraph<T> {
      */
     @Nullable
     public List<T> getOutgoingEdges(@NonNull T node) {
-        ArrayList<T> result = null;
-        for (int i = 0, size = mGraph.size(); i < size; i++) {
-            ArrayList<T> edges = mGraph.valueAt(i);
-            if (edges != null && edges.contains(node)) {
-                if (result == null) {
-                    result = new ArrayList<>();
-                }
-                result.add(mGraph.keyAt(i));
-            }
+        ArrayList<T> result = getOutgoingEdgesInternal(node);
+        if (result == null) {
+            return null;
+        } else {
+            return new ArrayList<>(result);
         }
-        return result;
+    }
+
+   /**
+     * Get any outgoing edges for the given node.
+     *
+     * @return a list containing any outgoing edges, or null if there are none.
+     */
+    @Nullable
+    ArrayList<T> getOutgoingEdgesInternal(@NonNull T node) {
+        ArrayList<T> result = mOutgoingGraph.get(node);
+        return result == null || result.isEmpty() ? null : result;
     }
 
    /**
@@ -157,13 +185,8 @@ public final class DirectedAcyclicGraph<T> {
      * otherwise.
      */
     public boolean hasOutgoingEdges(@NonNull T node) {
-        for (int i = 0, size = mGraph.size(); i < size; i++) {
-            ArrayList<T> edges = mGraph.valueAt(i);
-            if (edges != null && edges.contains(node)) {
-                return true;
-            }
-        }
-        return false;
+        ArrayList<T> edges = mOutgoingGraph.get(node);
+        return edges != null && !edges.isEmpty();
     }
 
    /**
@@ -177,12 +200,19 @@ public final class DirectedAcyclicGraph<T> {
             }
         }
         mGraph.clear();
+
+        for (int i = 0, size = mOutgoingGraph.size(); i < size; i++) {
+            poolList(mOutgoingGraph.valueAt(i));
+        }
+        mOutgoingGraph.clear();
     }
 
    /**
      * Returns a topologically sorted list of the nodes in this graph. This uses the DFS algorithm
-     * as described by Cormen et al. (2001). If this graph contains cyclic dependencies then this
-     * method will throw a {@link RuntimeException}.
+     * as described by Cormen et al. (2001), driven by an explicit stack so that deep dependency
+     * chains don't recurse. The edges are first resolved to node indices through a hash index, so
+     * each node and edge is visited once and the sort takes O(V + E) time. If this graph contains cyclic dependencies then this method will throw
+     * an {@link IllegalStateException} naming the nodes which form the cycle.
      *
      * <p>The resulting list will be ordered such that index 0 will contain the node at the bottom
      * of the graph. The node at the end of the list will have no dependencies on other nodes.</p>
@@ -190,37 +220,105 @@ public final class DirectedAcyclicGraph<T> {
     @NonNull
     public ArrayList<T> getSortedList() {
         mSortResult.clear();
-        mSortTmpMarked.clear();
+
+        final int size = mGraph.size();
+        ensureSortCapacity(size);
+        Arrays.fill(mSortState, 0, size, SORT_UNVISITED);
+        resolveSortEdges(size);
 
         // Start a DFS from each node in the graph
-        for (int i = 0, size = mGraph.size(); i < size; i++) {
-            dfs(mGraph.keyAt(i), mSortResult, mSortTmpMarked);
+        for (int i = 0; i < size; i++) {
+            if (mSortState[i] == SORT_UNVISITED) {
+                dfs(i);
+            }
         }
 
         return mSortResult;
     }
 
-    private void dfs(final T node, final ArrayList<T> result, final HashSet<T> tmpMarked) {
-        if (result.contains(node)) {
-            // We've already seen and added the node to the result list, skip...
-            return;
+    private void resolveSortEdges(final int size) {
+        for (int i = 0; i < size; i++) {
+            mSortIndex.put(mGraph.keyAt(i), i);
+        }
+        int edgeCount = 0;
+        for (int i = 0; i < size; i++) {
+            final ArrayList<T> edges = mGraph.valueAt(i);
+            edgeCount += edges != null ? edges.size() : 0;
         }
-        if (tmpMarked.contains(node)) {
-            throw new RuntimeException("This graph contains cyclic dependencies");
+        if (mSortEdges.length < edgeCount) {
+            mSortEdges = new int[edgeCount];
         }
-        // Temporarily mark the node
-        tmpMarked.add(node);
-        // Recursively dfs all of the node's edges
-        final ArrayList<T> edges = mGraph.get(node);
-        if (edges != null) {
-            for (int i = 0, size = edges.size(); i < size; i++) {
-                dfs(edges.get(i), result, tmpMarked);
+        int e = 0;
+        for (int i = 0; i < size; i++) {
+            mSortEdgeStart[i] = e;
+            final ArrayList<T> edges = mGraph.valueAt(i);
+            if (edges != null) {
+                for (int j = 0, count = edges.size(); j < count; j++) {
+                    mSortEdges[e++] = mSortIndex.get(edges.get(j));
+                }
             }
         }
-        // Unmark the node from the temporary list
-        tmpMarked.remove(node);
-        // Finally add it to the result list
-        result.add(node);
+        mSortEdgeStart[size] = e;
+        // Don't hold on to the nodes between sorts
+        mSortIndex.clear();
+    }
+
+    private void dfs(final int root) {
+        // mSortStack holds the indices of the nodes on the current path and mSortEdgeCursor
+        // the next edge to follow for each of them
+        int depth = 0;
+        mSortStack[0] = root;
+        mSortEdgeCursor[0] = mSortEdgeStart[root];
+        mSortState[root] = SORT_ON_STACK;
+
+        while (depth >= 0) {
+            final int node = mSortStack[depth];
+            final int cursor = mSortEdgeCursor[depth];
+            if (cursor < mSortEdgeStart[node + 1]) {
+                mSortEdgeCursor[depth] = cursor + 1;
+                final int next = mSortEdges[cursor];
+                switch (mSortState[next]) {
+                    case SORT_DONE:
+                        // We've already seen and added the node to the result list, skip...
+                        break;
+                    case SORT_ON_STACK:
+                        throw new IllegalStateException("This graph contains cyclic dependencies: "
+                                + describeCycle(next, depth));
+                    default:
+                        depth++;
+                        mSortStack[depth] = next;
+                        mSortEdgeCursor[depth] = mSortEdgeStart[next];
+                        mSortState[next] = SORT_ON_STACK;
+                        break;
+                }
+            } else {
+                // All of the node's edges are done, so add it to the result list
+                mSortState[node] = SORT_DONE;
+                mSortResult.add(mGraph.keyAt(node));
+                depth--;
+            }
+        }
+    }
+
+    private String describeCycle(final int node, final int depth) {
+        final StringBuilder sb = new StringBuilder();
+        int start = depth;
+        while (mSortStack[start] != node) {
+            start--;
+        }
+        for (int i = start; i <= depth; i++) {
+            sb.append(mGraph.keyAt(mSortStack[i])).append(" -> ");
+        }
+        return sb.append(mGraph.keyAt(node)).toString();
+    }
+
+    private void ensureSortCapacity(final int size) {
+        if (mSortState.length < size) {
+            mSortState = new int[size];
+            mSortStack = new int[size];
+            mSortEdgeCursor = new int[size];
+            mSortEdgeStart = new int[size + 1];
+        }
     }
 
    /**
@@ -0,0 +1,164 @@
+//start - license
+/*
+ * Copyright (c) 2025 Ashera Cordova
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+//end - license
+
+package androidx.coordinatorlayout.widget;
+
+import r.android.annotation.NonNull;
+
+/**
+ * Metrics for a single pass of a {@link CoordinatorLayout}, delivered to a {@link Listener}.
+ *
+ * <p>The same instance is reused for every pass of a layout, so listeners must copy out the
+ * values they want to keep before returning. A {@link #PASS_PREPARE_CHILDREN} triggered by
+ * {@code onMeasure} is reported on its own, before the measure pass, and is not part of it.</p>
+ *
+ * @see CoordinatorLayout#setPassMetricsListener(Listener)
+ */
+public final class LayoutPassMetrics {
+    /** Rebuilding the dependency graph and layout plan. */
+    public static final int PASS_PREPARE_CHILDREN = 0;
+    /** {@code onMeasure}. */
+    public static final int PASS_MEASURE = 1;
+    /** {@code onLayout}. */
+    public static final int PASS_LAYOUT = 2;
+    /** Dependency dispatch from the pre-draw listener. */
+    public static final int PASS_PRE_DRAW = 3;
+    /** Dependency dispatch after a nested scroll or fling. */
+    public static final int PASS_NESTED_SCROLL = 4;
+    /** Dependency dispatch after a child was removed. */
+    public static final int PASS_VIEW_REMOVED = 5;
+
+    /** The number of distinct passes, handy for sizing per-pass histograms. */
+    public static final int PASS_COUNT = 6;
+
+   /**
+     * Receives metrics at the end of every pass. Called on the UI thread, from inside the pass,
+     * so implementations should only record the values.
+     */
+    public interface Listener {
+        void onPassMetrics(@NonNull CoordinatorLayout parent, @NonNull LayoutPassMetrics metrics);
+    }
+
+    private int mPass;
+    private long mDurationNanos;
+    private int mChildCount;
+    private int mBehaviorCallbacks;
+    private int mChildrenVisited;
+    private int mChildrenSkipped;
+    private int mTempRectMisses;
+
+    LayoutPassMetrics() {
+    }
+
+    void set(int pass, long durationNanos, int childCount, int behaviorCallbacks,
+            int childrenVisited, int childrenSkipped, int tempRectMisses) {
+        mPass = pass;
+        mDurationNanos = durationNanos;
+        mChildCount = childCount;
+        mBehaviorCallbacks = behaviorCallbacks;
+        mChildrenVisited = childrenVisited;
+        mChildrenSkipped = childrenSkipped;
+        mTempRectMisses = tempRectMisses;
+    }
+
+   /**
+     * Returns a human readable name for the given pass.
+     */
+    @NonNull
+    public static String passName(int pass) {
+        switch (pass) {
+            case PASS_PREPARE_CHILDREN:
+                return "prepareChildren";
+            case PASS_MEASURE:
+                return "measure";
+            case PASS_LAYOUT:
+                return "layout";
+            case PASS_PRE_DRAW:
+                return "preDraw";
+            case PASS_NESTED_SCROLL:
+                return "nestedScroll";
+            case PASS_VIEW_REMOVED:
+                return "viewRemoved";
+            default:
+                return "unknown(" + pass + ")";
+        }
+    }
+
+   /**
+     * Returns which pass these metrics describe, one of the {@code PASS_} constants.
+     */
+    public int getPass() {
+        return mPass;
+    }
+
+   /**
+     * Returns the wall time of the pass in nanoseconds, as measured by {@link System#nanoTime()}.
+     */
+    public long getDurationNanos() {
+        return mDurationNanos;
+    }
+
+   /**
+     * Returns the number of direct children of the layout during the pass.
+     */
+    public int getChildCount() {
+        return mChildCount;
+    }
+
+   /**
+     * Returns the number of {@link CoordinatorLayout.Behavior} callbacks the pass invoked.
+     */
+    public int getBehaviorCallbackCount() {
+        return mBehaviorCallbacks;
+    }
+
+   /**
+     * Returns the number of children the pass did work for. For measure and layout these are
+     * the children which missed their cache; for dependency dispatch these are the children whose
+     * rect changed since the last pass.
+     */
+    public int getChildrenVisited() {
+        return mChildrenVisited;
+    }
+
+   /**
+     * Returns the number of children the pass skipped, because their cached measurement, layout
+     * or last child rect was still current.
+     */
+    public int getChildrenSkipped() {
+        return mChildrenSkipped;
+    }
+
+   /**
+     * Returns the number of temporary {@code Rect}s the pass had to allocate because the
+     * layout's pool was empty.
+     */
+    public int getTempRectMisses() {
+        return mTempRectMisses;
+    }
+
+    @Override
+    public String toString() {
+        return "LayoutPassMetrics{" + passName(mPass)
+                + " durationNanos=" + mDurationNanos
+                + " childCount=" + mChildCount
+                + " behaviorCallbacks=" + mBehaviorCallbacks
+                + " visited=" + mChildrenVisited
+                + " skipped=" + mChildrenSkipped
+                + " tempRectMisses=" + mTempRectMisses
+                + "}";
+    }
+}
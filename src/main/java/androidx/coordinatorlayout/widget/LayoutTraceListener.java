@@ -0,0 +1,58 @@
+//start - license
+/*
+ * Copyright (c) 2025 Ashera Cordova
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+//end - license
+
+package androidx.coordinatorlayout.widget;
+
+import r.android.annotation.NonNull;
+import r.android.view.View;
+
+/**
+ * Receives the start and end of the work a {@link CoordinatorLayout} does, so it can be placed
+ * on an external timeline such as a tracing or flight recorder session.
+ *
+ * <p>Unlike {@link LayoutPassMetrics.Listener}, which is told about a pass once it is over, this
+ * listener is called on both sides of it. Calls are made on the UI thread. A pass which
+ * completes gets its end call as long as the listener stays installed, but one which throws, for
+ * example from a behavior, does not, so a listener should expect a begin without an end. A pass
+ * may begin while a pass of another kind is in progress.</p>
+ *
+ * @see CoordinatorLayout#setLayoutTraceListener(LayoutTraceListener)
+ */
+public interface LayoutTraceListener {
+   /**
+     * Called before a pass starts.
+     *
+     * @param pass one of the {@code PASS_} constants in {@link LayoutPassMetrics}
+     */
+    void onPassBegin(@NonNull CoordinatorLayout parent, int pass);
+
+   /**
+     * Called after a pass finished.
+     *
+     * @param pass the pass given to the matching {@link #onPassBegin}
+     * @param childCount the number of direct children the pass ran over
+     */
+    void onPassEnd(@NonNull CoordinatorLayout parent, int pass, int childCount);
+
+   /**
+     * Called when the layout accepts a nested scroll, which lasts until
+     * {@link #onNestedScrollStop} with the same {@code type}.
+     */
+    void onNestedScrollStart(@NonNull CoordinatorLayout parent, @NonNull View target, int axes,
+            int type);
+
+    void onNestedScrollStop(@NonNull CoordinatorLayout parent, @NonNull View target, int type);
+}
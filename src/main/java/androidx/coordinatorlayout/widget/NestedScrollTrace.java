@@ -0,0 +1,381 @@
+//start - license
+/*
+ * Copyright (c) 2025 Ashera Cordova
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+//end - license
+
+package androidx.coordinatorlayout.widget;
+
+import r.android.annotation.NonNull;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * A compact binary trace of the nested scroll callbacks received by a {@link CoordinatorLayout}.
+ *
+ * <p>A trace starts with the {@link #MAGIC} number and a {@link #VERSION} byte, followed by one
+ * record per callback. Each record is the event byte, the time since the previous record in
+ * nanoseconds and the callback's arguments. Integers are written as unsigned or zig-zag encoded
+ * variable length quantities, so a typical scroll step takes 5 to 8 bytes. Velocities are
+ * written as raw float bits.</p>
+ *
+ * <p>Children are identified by their index in the layout, which is enough to replay a trace
+ * against a layout with the same structure.</p>
+ *
+ * @see CoordinatorLayout#setNestedScrollTraceRecorder(Recorder)
+ */
+public final class NestedScrollTrace {
+    /** The first four bytes of every trace, "NSTR". */
+    public static final int MAGIC = 0x4E535452;
+    /** The format version written after {@link #MAGIC}. */
+    public static final int VERSION = 1;
+
+    public static final int EVENT_START = 1;
+    public static final int EVENT_ACCEPTED = 2;
+    public static final int EVENT_PRE_SCROLL = 3;
+    public static final int EVENT_SCROLL = 4;
+    public static final int EVENT_PRE_FLING = 5;
+    public static final int EVENT_FLING = 6;
+    public static final int EVENT_STOP = 7;
+
+    private NestedScrollTrace() {
+    }
+
+   /**
+     * Returns a human readable name for the given event.
+     */
+    @NonNull
+    public static String eventName(int event) {
+        switch (event) {
+            case EVENT_START:
+                return "start";
+            case EVENT_ACCEPTED:
+                return "accepted";
+            case EVENT_PRE_SCROLL:
+                return "preScroll";
+            case EVENT_SCROLL:
+                return "scroll";
+            case EVENT_PRE_FLING:
+                return "preFling";
+            case EVENT_FLING:
+                return "fling";
+            case EVENT_STOP:
+                return "stop";
+            default:
+                return "unknown(" + event + ")";
+        }
+    }
+
+   /**
+     * Records nested scroll callbacks into an in-memory buffer. Recording never performs I/O,
+     * so it is safe to leave enabled on the UI thread; the buffer is written out through
+     * {@link #writeTo(OutputStream)}.
+     */
+    public static final class Recorder {
+        private byte[] mBuffer = new byte[1024];
+        private int mSize;
+        private long mLastTime;
+        private int mEventCount;
+
+        public Recorder() {
+            writeInt(MAGIC);
+            mBuffer[mSize++] = (byte) VERSION;
+        }
+
+        public void recordStart(int childIndex, int axes, int type) {
+            begin(EVENT_START);
+            writeSigned(childIndex);
+            writeUnsigned(axes);
+            writeUnsigned(type);
+        }
+
+        public void recordAccepted(int childIndex, int axes, int type) {
+            begin(EVENT_ACCEPTED);
+            writeSigned(childIndex);
+            writeUnsigned(axes);
+            writeUnsigned(type);
+        }
+
+        public void recordPreScroll(int dx, int dy, int type) {
+            begin(EVENT_PRE_SCROLL);
+            writeSigned(dx);
+            writeSigned(dy);
+            writeUnsigned(type);
+        }
+
+        public void recordScroll(int dxConsumed, int dyConsumed, int dxUnconsumed,
+                int dyUnconsumed, int type) {
+            begin(EVENT_SCROLL);
+            writeSigned(dxConsumed);
+            writeSigned(dyConsumed);
+            writeSigned(dxUnconsumed);
+            writeSigned(dyUnconsumed);
+            writeUnsigned(type);
+        }
+
+        public void recordPreFling(float velocityX, float velocityY) {
+            begin(EVENT_PRE_FLING);
+            writeInt(Float.floatToIntBits(velocityX));
+            writeInt(Float.floatToIntBits(velocityY));
+        }
+
+        public void recordFling(float velocityX, float velocityY, boolean consumed) {
+            begin(EVENT_FLING);
+            writeInt(Float.floatToIntBits(velocityX));
+            writeInt(Float.floatToIntBits(velocityY));
+            mBuffer[mSize++] = (byte) (consumed ? 1 : 0);
+        }
+
+        public void recordStop(int type) {
+            begin(EVENT_STOP);
+            writeUnsigned(type);
+        }
+
+       /**
+         * Returns the number of records written so far.
+         */
+        public int getEventCount() {
+            return mEventCount;
+        }
+
+       /**
+         * Returns the size of the trace in bytes.
+         */
+        public int size() {
+            return mSize;
+        }
+
+        public void writeTo(@NonNull OutputStream out) throws IOException {
+            out.write(mBuffer, 0, mSize);
+        }
+
+        @NonNull
+        public byte[] toByteArray() {
+            return Arrays.copyOf(mBuffer, mSize);
+        }
+
+        private void begin(int event) {
+            final long now = System.nanoTime();
+            final long delta = mEventCount == 0 ? 0 : now - mLastTime;
+            mLastTime = now;
+            mEventCount++;
+            // The largest record is an event byte, a 10 byte time and five 5 byte integers
+            ensureCapacity(mSize + 36);
+            mBuffer[mSize++] = (byte) event;
+            writeUnsigned(delta);
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (mBuffer.length < capacity) {
+                mBuffer = Arrays.copyOf(mBuffer, Math.max(capacity, mBuffer.length * 2));
+            }
+        }
+
+        private void writeSigned(int value) {
+            writeUnsigned(((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL);
+        }
+
+        private void writeUnsigned(long value) {
+            while ((value & ~0x7FL) != 0) {
+                mBuffer[mSize++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            mBuffer[mSize++] = (byte) value;
+        }
+
+        private void writeInt(int value) {
+            ensureCapacity(mSize + 4);
+            mBuffer[mSize++] = (byte) (value >>> 24);
+            mBuffer[mSize++] = (byte) (value >>> 16);
+            mBuffer[mSize++] = (byte) (value >>> 8);
+            mBuffer[mSize++] = (byte) value;
+        }
+    }
+
+   /**
+     * Reads a trace written by a {@link Recorder}, one record at a time. The getters describe
+     * the record last read by {@link #next()}; arguments which the event does not have are 0.
+     */
+    public static final class Reader {
+        private final InputStream mIn;
+        private int mEvent;
+        private long mTimeDelta;
+        private int mChildIndex;
+        private int mAxes;
+        private int mType;
+        private int mDx;
+        private int mDy;
+        private int mDxUnconsumed;
+        private int mDyUnconsumed;
+        private float mVelocityX;
+        private float mVelocityY;
+        private boolean mConsumed;
+
+       /**
+         * Creates a reader and checks the trace header.
+         *
+         * @throws IOException if the stream does not start with a supported trace header
+         */
+        public Reader(@NonNull InputStream in) throws IOException {
+            mIn = in;
+            if (readInt() != MAGIC) {
+                throw new IOException("Not a nested scroll trace");
+            }
+            final int version = readByte();
+            if (version != VERSION) {
+                throw new IOException("Unsupported nested scroll trace version " + version);
+            }
+        }
+
+       /**
+         * Reads the next record.
+         *
+         * @return false when the end of the trace was reached
+         */
+        public boolean next() throws IOException {
+            final int event = mIn.read();
+            if (event < 0) {
+                return false;
+            }
+            mEvent = event;
+            mTimeDelta = readUnsigned();
+            mChildIndex = mAxes = mType = mDx = mDy = mDxUnconsumed = mDyUnconsumed = 0;
+            mVelocityX = mVelocityY = 0f;
+            mConsumed = false;
+            switch (event) {
+                case EVENT_START:
+                case EVENT_ACCEPTED:
+                    mChildIndex = readSigned();
+                    mAxes = (int) readUnsigned();
+                    mType = (int) readUnsigned();
+                    break;
+                case EVENT_PRE_SCROLL:
+                    mDx = readSigned();
+                    mDy = readSigned();
+                    mType = (int) readUnsigned();
+                    break;
+                case EVENT_SCROLL:
+                    mDx = readSigned();
+                    mDy = readSigned();
+                    mDxUnconsumed = readSigned();
+                    mDyUnconsumed = readSigned();
+                    mType = (int) readUnsigned();
+                    break;
+                case EVENT_FLING:
+                case EVENT_PRE_FLING:
+                    mVelocityX = Float.intBitsToFloat(readInt());
+                    mVelocityY = Float.intBitsToFloat(readInt());
+                    if (event == EVENT_FLING) {
+                        mConsumed = readByte() != 0;
+                    }
+                    break;
+                case EVENT_STOP:
+                    mType = (int) readUnsigned();
+                    break;
+                default:
+                    throw new IOException("Unknown nested scroll trace event " + event);
+            }
+            return true;
+        }
+
+        public int getEvent() {
+            return mEvent;
+        }
+
+       /**
+         * Returns the time between the previous record and this one, in nanoseconds.
+         */
+        public long getTimeDelta() {
+            return mTimeDelta;
+        }
+
+        public int getChildIndex() {
+            return mChildIndex;
+        }
+
+        public int getAxes() {
+            return mAxes;
+        }
+
+        public int getType() {
+            return mType;
+        }
+
+       /**
+         * Returns {@code dx} of a pre-scroll or {@code dxConsumed} of a scroll.
+         */
+        public int getDx() {
+            return mDx;
+        }
+
+       /**
+         * Returns {@code dy} of a pre-scroll or {@code dyConsumed} of a scroll.
+         */
+        public int getDy() {
+            return mDy;
+        }
+
+        public int getDxUnconsumed() {
+            return mDxUnconsumed;
+        }
+
+        public int getDyUnconsumed() {
+            return mDyUnconsumed;
+        }
+
+        public float getVelocityX() {
+            return mVelocityX;
+        }
+
+        public float getVelocityY() {
+            return mVelocityY;
+        }
+
+        public boolean isConsumed() {
+            return mConsumed;
+        }
+
+        private int readByte() throws IOException {
+            final int b = mIn.read();
+            if (b < 0) {
+                throw new EOFException("Truncated nested scroll trace");
+            }
+            return b;
+        }
+
+        private int readInt() throws IOException {
+            return (readByte() << 24) | (readByte() << 16) | (readByte() << 8) | readByte();
+        }
+
+        private int readSigned() throws IOException {
+            final int value = (int) readUnsigned();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        private long readUnsigned() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                final int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed variable length quantity");
+        }
+    }
+}
@@ -39,6 +39,8 @@ public class HideBottomViewOnScrollBehavior<V extends View> extends CoordinatorL
   private final LinkedHashSet<OnScrollStateChangedListener> onScrollStateChangedListeners=new LinkedHashSet<>();
   private static final int DEFAULT_ENTER_ANIMATION_DURATION_MS=225;
   private static final int DEFAULT_EXIT_ANIMATION_DURATION_MS=175;
+  private static final TimeInterpolator DEFAULT_ENTER_ANIMATION_INTERPOLATOR=new androidx.interpolator.view.animation.LinearOutSlowInInterpolator();
+  private static final TimeInterpolator DEFAULT_EXIT_ANIMATION_INTERPOLATOR=new androidx.interpolator.view.animation.FastOutLinearInInterpolator();
   private int enterAnimDuration;
   private int exitAnimDuration;
   private TimeInterpolator enterAnimInterpolator;
@@ -48,13 +50,16 @@ public class HideBottomViewOnScrollBehavior<V extends View> extends CoordinatorL
   private int height=0;
   private int currentState=STATE_SCROLLED_UP;
   private int additionalHiddenOffsetY=0;
+  public int getCallbackFlags(){
+    return CALLBACK_LAYOUT | CALLBACK_NESTED_SCROLL;
+  }
   public boolean onLayoutChild(  CoordinatorLayout parent,  V child,  int layoutDirection){
     ViewGroup.MarginLayoutParams paramsCompat=(ViewGroup.MarginLayoutParams)child.getLayoutParams();
     height=child.getMeasuredHeight() + paramsCompat.bottomMargin;
     enterAnimDuration=(DEFAULT_ENTER_ANIMATION_DURATION_MS);
     exitAnimDuration=(DEFAULT_EXIT_ANIMATION_DURATION_MS);
-    enterAnimInterpolator=new androidx.interpolator.view.animation.LinearOutSlowInInterpolator();//MotionUtils.resolveThemeInterpolator(child.getContext(),ENTER_EXIT_ANIM_EASING_ATTR,AnimationUtils.LINEAR_OUT_SLOW_IN_INTERPOLATOR);
-    exitAnimInterpolator=new androidx.interpolator.view.animation.FastOutLinearInInterpolator();//MotionUtils.resolveThemeInterpolator(child.getContext(),ENTER_EXIT_ANIM_EASING_ATTR,AnimationUtils.FAST_OUT_LINEAR_IN_INTERPOLATOR);
+    enterAnimInterpolator=DEFAULT_ENTER_ANIMATION_INTERPOLATOR;//MotionUtils.resolveThemeInterpolator(child.getContext(),ENTER_EXIT_ANIM_EASING_ATTR,AnimationUtils.LINEAR_OUT_SLOW_IN_INTERPOLATOR);
+    exitAnimInterpolator=DEFAULT_EXIT_ANIMATION_INTERPOLATOR;//MotionUtils.resolveThemeInterpolator(child.getContext(),ENTER_EXIT_ANIM_EASING_ATTR,AnimationUtils.FAST_OUT_LINEAR_IN_INTERPOLATOR);
     return super.onLayoutChild(parent,child,layoutDirection);
   }
   public void setAdditionalHiddenOffsetY(  V child,  int offset){
@@ -122,22 +127,39 @@ public class HideBottomViewOnScrollBehavior<V extends View> extends CoordinatorL
   }
   private void updateCurrentState(  V child,  int state){
     currentState=state;
+    if (onScrollStateChangedListeners.isEmpty()) {
+      return;
+    }
     for (    OnScrollStateChangedListener listener : onScrollStateChangedListeners) {
       listener.onStateChanged(child,currentState);
     }
   }
   private r.android.animation.Animator currentAnimator;
+  private r.android.animation.ValueAnimator translationAnimator;
+  private TranslationAnimatorListener translationAnimatorListener;
+  private View animatedChild;
+  private float animatedTargetY;
   private void animateChildTo(  V child,  int targetY,  long duration,  TimeInterpolator interpolator){
-    currentAnimator=r.android.animation.ObjectAnimator.ofFloat(child,"translationY",0f,targetY);
-    currentAnimator.setDuration(duration);
-    currentAnimator.setInterpolator(interpolator);
-    currentAnimator.addListener(new r.android.animation.AnimatorListenerAdapter(){
-      @Override public void onAnimationEnd(      r.android.animation.Animator animation){
-        currentAnimator=null;
-      }
-    }
-);
-    currentAnimator.start();
+    if (translationAnimator == null) {
+      translationAnimatorListener=new TranslationAnimatorListener();
+      translationAnimator=r.android.animation.ValueAnimator.ofFloat(0f,1f);
+      translationAnimator.addUpdateListener(translationAnimatorListener);
+      translationAnimator.addListener(translationAnimatorListener);
+    }
+    animatedChild=child;
+    animatedTargetY=targetY;
+    translationAnimator.setDuration(duration);
+    translationAnimator.setInterpolator(interpolator);
+    currentAnimator=translationAnimator;
+    translationAnimator.start();
+  }
+  private final class TranslationAnimatorListener extends r.android.animation.AnimatorListenerAdapter implements r.android.animation.ValueAnimator.AnimatorUpdateListener {
+    @Override public void onAnimationUpdate(    r.android.animation.ValueAnimator animation){
+      animatedChild.setTranslationY(animatedTargetY * animation.getAnimatedFraction());
+    }
+    @Override public void onAnimationEnd(    r.android.animation.Animator animation){
+      currentAnimator=null;
+    }
   }
 static class OnScrollStateChangedListener<V> {
     public void onStateChanged(    V child,    int currentState){
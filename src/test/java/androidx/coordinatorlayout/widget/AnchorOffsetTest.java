@@ -0,0 +1,116 @@
+//start - license
+/*
+ * Copyright (c) 2025 Ashera Cordova
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+//end - license
+
+package androidx.coordinatorlayout.widget;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import androidx.core.view.GravityCompat;
+
+import r.android.view.Gravity;
+import r.android.view.View;
+
+public class AnchorOffsetTest {
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+
+    private CoordinatorLayout mLayout;
+    private View mAnchor;
+    private View mChild;
+    private CountingBehavior mBehavior;
+
+    @Before
+    public void setUp() {
+        mLayout = new CoordinatorLayout();
+        mAnchor = new View();
+        mAnchor.setId(1);
+        mLayout.addView(mAnchor, new CoordinatorLayout.LayoutParams(200, 200));
+
+        mChild = new View();
+        mChild.setId(2);
+        final CoordinatorLayout.LayoutParams lp = new CoordinatorLayout.LayoutParams(100, 100);
+        lp.setAnchorId(1);
+        lp.anchorGravity = Gravity.BOTTOM | GravityCompat.START;
+        lp.gravity = Gravity.BOTTOM | GravityCompat.END;
+        mBehavior = new CountingBehavior();
+        lp.setBehavior(mBehavior);
+        mLayout.addView(mChild, lp);
+
+        TestLayouts.measureAndLayout(mLayout, WIDTH, HEIGHT);
+        mLayout.onChildViewsChanged(CoordinatorLayout.EVENT_PRE_DRAW);
+        mBehavior.mAnchorChanges = 0;
+    }
+
+    @Test
+    public void settledAnchorDoesNotReportChanges() {
+        for (int i = 0; i < 3; i++) {
+            mLayout.onChildViewsChanged(CoordinatorLayout.EVENT_PRE_DRAW);
+            mLayout.onChildViewsChanged(CoordinatorLayout.EVENT_NESTED_SCROLL);
+        }
+        assertEquals(0, mBehavior.mAnchorChanges);
+    }
+
+    @Test
+    public void movedAnchorReportsOneChangeThenSettles() {
+        mAnchor.offsetTopAndBottom(50);
+        mLayout.onChildViewsChanged(CoordinatorLayout.EVENT_PRE_DRAW);
+        assertEquals(1, mBehavior.mAnchorChanges);
+        assertEquals(mAnchor.getBottom(), mChild.getTop());
+
+        mLayout.onChildViewsChanged(CoordinatorLayout.EVENT_PRE_DRAW);
+        mLayout.onChildViewsChanged(CoordinatorLayout.EVENT_NESTED_SCROLL);
+        assertEquals(1, mBehavior.mAnchorChanges);
+    }
+
+    @Test
+    public void anchorDispatchIsCountedOnTheAnchorEdge() {
+        mLayout.resetDependencyGraphCounters();
+        mAnchor.offsetTopAndBottom(50);
+        mLayout.onChildViewsChanged(CoordinatorLayout.EVENT_PRE_DRAW);
+
+        final String json = mLayout.exportDependencyGraphJson();
+        assertTrue(json, json.contains("\"flags\":[\"anchor\"],\"dispatched\":1,\"handled\":0"));
+    }
+
+    @Test
+    public void clampedChildKeepsReportingLikeUpstream() {
+        // Push the anchor so far down that the child is clamped to the parent's bottom edge
+        mAnchor.offsetTopAndBottom(HEIGHT - mAnchor.getBottom());
+        mLayout.onChildViewsChanged(CoordinatorLayout.EVENT_PRE_DRAW);
+        assertEquals(HEIGHT, mChild.getBottom());
+        final int changes = mBehavior.mAnchorChanges;
+
+        mLayout.onChildViewsChanged(CoordinatorLayout.EVENT_PRE_DRAW);
+        assertEquals(changes + 1, mBehavior.mAnchorChanges);
+    }
+
+    static final class CountingBehavior extends CoordinatorLayout.Behavior<View> {
+        int mAnchorChanges;
+
+        @Override
+        public boolean onDependentViewChanged(CoordinatorLayout parent, View child,
+                View dependency) {
+            if (dependency.getId() == 1) {
+                mAnchorChanges++;
+            }
+            return false;
+        }
+    }
+}
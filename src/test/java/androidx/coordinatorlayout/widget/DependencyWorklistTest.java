@@ -0,0 +1,111 @@
+//start - license
+/*
+ * Copyright (c) 2025 Ashera Cordova
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+//end - license
+
+package androidx.coordinatorlayout.widget;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import r.android.view.View;
+
+public class DependencyWorklistTest {
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+
+    private CoordinatorLayout mLayout;
+    private View mDirtyDependency;
+    private View mCleanDependency;
+    private CountingBehavior mDirtyDependent;
+    private CountingBehavior mCleanDependent;
+
+    @Before
+    public void setUp() {
+        mLayout = new CoordinatorLayout();
+        mDirtyDependency = addChild(1, null);
+        mCleanDependency = addChild(2, null);
+        mDirtyDependent = new CountingBehavior(1);
+        addChild(3, mDirtyDependent);
+        mCleanDependent = new CountingBehavior(2);
+        addChild(4, mCleanDependent);
+
+        TestLayouts.measureAndLayout(mLayout, WIDTH, HEIGHT);
+        mLayout.onChildViewsChanged(CoordinatorLayout.EVENT_PRE_DRAW);
+        mLayout.setDependencyWorklistEnabled(true);
+        mDirtyDependent.mChanges = 0;
+        mCleanDependent.mChanges = 0;
+    }
+
+    @Test
+    public void nestedScrollPassOnlyVisitsDependentsOfDirtyChildren() {
+        mDirtyDependency.offsetTopAndBottom(50);
+        mCleanDependency.offsetTopAndBottom(50);
+        mLayout.markChildDirty(mDirtyDependency);
+
+        mLayout.onChildViewsChanged(CoordinatorLayout.EVENT_NESTED_SCROLL);
+        assertEquals(1, mDirtyDependent.mChanges);
+        assertEquals(0, mCleanDependent.mChanges);
+    }
+
+    @Test
+    public void nestedScrollPassClearsTheDirtyChildren() {
+        mDirtyDependency.offsetTopAndBottom(50);
+        mLayout.markChildDirty(mDirtyDependency);
+        mLayout.onChildViewsChanged(CoordinatorLayout.EVENT_NESTED_SCROLL);
+
+        mDirtyDependency.offsetTopAndBottom(50);
+        mLayout.onChildViewsChanged(CoordinatorLayout.EVENT_NESTED_SCROLL);
+        assertEquals(1, mDirtyDependent.mChanges);
+    }
+
+    @Test
+    public void preDrawPassStillVisitsEveryChild() {
+        mCleanDependency.offsetTopAndBottom(50);
+        mLayout.onChildViewsChanged(CoordinatorLayout.EVENT_PRE_DRAW);
+        assertEquals(1, mCleanDependent.mChanges);
+    }
+
+    private View addChild(int id, CoordinatorLayout.Behavior<View> behavior) {
+        final View child = new View();
+        child.setId(id);
+        final CoordinatorLayout.LayoutParams lp = new CoordinatorLayout.LayoutParams(100, 100);
+        lp.setBehavior(behavior);
+        mLayout.addView(child, lp);
+        return child;
+    }
+
+    static final class CountingBehavior extends CoordinatorLayout.Behavior<View> {
+        private final int mDependencyId;
+        int mChanges;
+
+        CountingBehavior(int dependencyId) {
+            mDependencyId = dependencyId;
+        }
+
+        @Override
+        public boolean layoutDependsOn(CoordinatorLayout parent, View child, View dependency) {
+            return dependency.getId() == mDependencyId;
+        }
+
+        @Override
+        public boolean onDependentViewChanged(CoordinatorLayout parent, View child,
+                View dependency) {
+            mChanges++;
+            return false;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+//start - license
+/*
+ * Copyright (c) 2025 Ashera Cordova
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+//end - license
+
+package androidx.coordinatorlayout.widget;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import r.android.view.Gravity;
+import r.android.view.View;
+
+public class InsetDodgeTest {
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+
+    private CoordinatorLayout mLayout;
+    private View mDodger;
+
+    @Before
+    public void setUp() {
+        mLayout = new CoordinatorLayout();
+        mDodger = new View();
+        final CoordinatorLayout.LayoutParams lp = new CoordinatorLayout.LayoutParams(100, 100);
+        lp.dodgeInsetEdges = Gravity.BOTTOM;
+        mLayout.addView(mDodger, lp);
+
+        TestLayouts.measureAndLayout(mLayout, WIDTH, HEIGHT);
+        mLayout.onChildViewsChanged(CoordinatorLayout.EVENT_PRE_DRAW);
+    }
+
+    @Test
+    public void dodgerOverflowingTheParentIsPushedBackWithoutInsetEdges() {
+        mDodger.offsetTopAndBottom(HEIGHT - mDodger.getBottom() + 40);
+        mLayout.onChildViewsChanged(CoordinatorLayout.EVENT_PRE_DRAW);
+        assertEquals(HEIGHT, mDodger.getBottom());
+    }
+
+    @Test
+    public void dodgerInsideTheParentIsLeftAlone() {
+        mDodger.offsetTopAndBottom(50);
+        mLayout.onChildViewsChanged(CoordinatorLayout.EVENT_PRE_DRAW);
+        assertEquals(150, mDodger.getBottom());
+    }
+}
@@ -0,0 +1,74 @@
+//start - license
+/*
+ * Copyright (c) 2025 Ashera Cordova
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+//end - license
+
+
+package androidx.coordinatorlayout.widget;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import r.android.view.View;
+
+public class LayoutCacheTest {
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+
+    private CoordinatorLayout mLayout;
+    private CountingView mChild;
+
+    @Before
+    public void setUp() {
+        mLayout = new CoordinatorLayout();
+        mChild = new CountingView();
+        mLayout.addView(mChild, new CoordinatorLayout.LayoutParams(100, 100));
+        TestLayouts.measureAndLayout(mLayout, WIDTH, HEIGHT);
+        mChild.mMeasures = 0;
+        mChild.mLayouts = 0;
+    }
+
+    @Test
+    public void unchangedChildIsNeitherMeasuredNorLaidOut() {
+        TestLayouts.measureAndLayout(mLayout, WIDTH, HEIGHT);
+        assertEquals(0, mChild.mMeasures);
+        assertEquals(0, mChild.mLayouts);
+    }
+
+    @Test
+    public void remeasuredChildIsLaidOutEvenIfItsSizeIsUnchanged() {
+        mLayout.setMeasureCacheEnabled(false);
+        TestLayouts.measureAndLayout(mLayout, WIDTH, HEIGHT);
+        assertEquals(1, mChild.mMeasures);
+        assertEquals(1, mChild.mLayouts);
+    }
+
+    static final class CountingView extends View {
+        int mMeasures;
+        int mLayouts;
+
+        @Override
+        protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+            mMeasures++;
+            super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+        }
+
+        @Override
+        protected void onLayout(boolean changed, int l, int t, int r, int b) {
+            mLayouts++;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+//start - license
+/*
+ * Copyright (c) 2025 Ashera Cordova
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+//end - license
+
+
+package androidx.coordinatorlayout.widget;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import r.android.view.View;
+
+public class MeasureCacheTest {
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+
+    private static CoordinatorLayout layoutWith(View child,
+            CoordinatorLayout.Behavior<View> behavior) {
+        final CoordinatorLayout layout = new CoordinatorLayout();
+        final CoordinatorLayout.LayoutParams lp = new CoordinatorLayout.LayoutParams(100, 100);
+        lp.setBehavior(behavior);
+        layout.addView(child, lp);
+        TestLayouts.measureAndLayout(layout, WIDTH, HEIGHT);
+        return layout;
+    }
+
+    @Test
+    public void defaultBehaviorIsSkippedWhileInputsAreUnchanged() {
+        final MeasuringBehavior behavior = new MeasuringBehavior(true);
+        final CoordinatorLayout layout = layoutWith(new View(), behavior);
+        assertEquals(1, behavior.mMeasures);
+
+        TestLayouts.measureAndLayout(layout, WIDTH, HEIGHT);
+        assertEquals(1, behavior.mMeasures);
+    }
+
+    @Test
+    public void changedSpecMeasuresAgain() {
+        final MeasuringBehavior behavior = new MeasuringBehavior(true);
+        final CoordinatorLayout layout = layoutWith(new View(), behavior);
+
+        TestLayouts.measureAndLayout(layout, WIDTH / 2, HEIGHT);
+        assertEquals(2, behavior.mMeasures);
+    }
+
+    @Test
+    public void optedOutBehaviorIsMeasuredEveryPass() {
+        final MeasuringBehavior behavior = new MeasuringBehavior(false);
+        final CoordinatorLayout layout = layoutWith(new View(), behavior);
+
+        TestLayouts.measureAndLayout(layout, WIDTH, HEIGHT);
+        TestLayouts.measureAndLayout(layout, WIDTH, HEIGHT);
+        assertEquals(3, behavior.mMeasures);
+    }
+
+    static final class MeasuringBehavior extends CoordinatorLayout.Behavior<View> {
+        private final boolean mCanSkip;
+        int mMeasures;
+
+        MeasuringBehavior(boolean canSkip) {
+            mCanSkip = canSkip;
+        }
+
+        @Override
+        public boolean onMeasureChild(CoordinatorLayout parent, View child,
+                int parentWidthMeasureSpec, int widthUsed, int parentHeightMeasureSpec,
+                int heightUsed) {
+            mMeasures++;
+            return false;
+        }
+
+        @Override
+        public boolean canSkipMeasure(CoordinatorLayout parent, View child) {
+            return mCanSkip ? super.canSkipMeasure(parent, child) : false;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+//start - license
+/*
+ * Copyright (c) 2025 Ashera Cordova
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+//end - license
+
+
+package androidx.coordinatorlayout.widget;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import r.android.view.View;
+
+public class WindowInsetsDispatchTest {
+    private CoordinatorLayout mLayout;
+    private InsetsBehavior mFirst;
+    private InsetsBehavior mSecond;
+
+    @Before
+    public void setUp() {
+        mLayout = new CoordinatorLayout();
+        mFirst = new InsetsBehavior();
+        mSecond = new InsetsBehavior();
+        addFittingChild(mFirst);
+        addFittingChild(mSecond);
+    }
+
+    private void addFittingChild(InsetsBehavior behavior) {
+        final View child = new View();
+        child.setFitsSystemWindows(true);
+        final CoordinatorLayout.LayoutParams lp = new CoordinatorLayout.LayoutParams(100, 100);
+        lp.setBehavior(behavior);
+        mLayout.addView(child, lp);
+    }
+
+    @Test
+    public void insetsReachEveryFittingChild() {
+        final CoordinatorLayout.WindowInsetsCompat result =
+                mLayout.setWindowInsets(new CoordinatorLayout.WindowInsetsCompat(0, 24, 0, 48));
+        assertEquals(1, mFirst.mCalls);
+        assertEquals(1, mSecond.mCalls);
+        assertFalse(result.isConsumed());
+    }
+
+    @Test
+    public void zeroInsetsAreNotTreatedAsConsumed() {
+        mLayout.setWindowInsets(new CoordinatorLayout.WindowInsetsCompat(0, 0, 0, 0));
+        assertEquals(1, mFirst.mCalls);
+        assertEquals(1, mSecond.mCalls);
+    }
+
+    @Test
+    public void nullResultCountsAsConsumed() {
+        mFirst.mReturnNull = true;
+        final CoordinatorLayout.WindowInsetsCompat result =
+                mLayout.setWindowInsets(new CoordinatorLayout.WindowInsetsCompat(0, 24, 0, 48));
+        assertEquals(1, mFirst.mCalls);
+        assertEquals(0, mSecond.mCalls);
+        assertTrue(result.isConsumed());
+    }
+
+    @Test
+    public void consumedInsetsStopDispatch() {
+        mFirst.mConsume = true;
+        mLayout.setWindowInsets(new CoordinatorLayout.WindowInsetsCompat(0, 24, 0, 48));
+        assertEquals(1, mFirst.mCalls);
+        assertEquals(0, mSecond.mCalls);
+    }
+
+    static final class InsetsBehavior extends CoordinatorLayout.Behavior<View> {
+        int mCalls;
+        boolean mReturnNull;
+        boolean mConsume;
+
+        @Override
+        public CoordinatorLayout.WindowInsetsCompat onApplyWindowInsets(
+                CoordinatorLayout coordinatorLayout, View child,
+                CoordinatorLayout.WindowInsetsCompat insets) {
+            mCalls++;
+            if (mReturnNull) {
+                return null;
+            }
+            return mConsume ? insets.consumeSystemWindowInsets() : insets;
+        }
+    }
+}